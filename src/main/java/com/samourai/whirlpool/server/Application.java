@@ -7,8 +7,11 @@ import com.samourai.wallet.xmanagerClient.XManagerClient;
 import com.samourai.whirlpool.server.beans.export.ActivityCsv;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.services.BackendService;
+import com.samourai.whirlpool.server.services.CryptoService;
 import com.samourai.whirlpool.server.services.ExportService;
+import com.samourai.whirlpool.server.services.FeeAddressService;
 import com.samourai.whirlpool.server.services.MinerFeeService;
+import com.samourai.whirlpool.server.services.MixResultService;
 import com.samourai.whirlpool.server.services.MixSorobanService;
 import com.samourai.whirlpool.server.services.rpc.RpcClientService;
 import com.samourai.whirlpool.server.services.soroban.SorobanCoordinatorService;
@@ -42,6 +45,12 @@ public class Application extends ServerApplication {
 
   @Autowired private SorobanCoordinatorService sorobanCoordinatorService;
 
+  @Autowired private CryptoService cryptoService;
+
+  @Autowired private MixResultService mixResultService;
+
+  @Autowired private FeeAddressService feeAddressService;
+
   // required to launch on startup
   @Autowired private MixSorobanService mixSorobanService;
 
@@ -60,6 +69,7 @@ public class Application extends ServerApplication {
     AddressIndexResponse addressIndexResponse =
         xManagerClient.getAddressIndexOrDefault(XManagerService.XM000);
     log.info("XM index: " + addressIndexResponse.index);
+    feeAddressService.start();
 
     // check backend connectivity
     MinerFee minerFee = backendService.fetchMinerFee();
@@ -87,5 +97,9 @@ public class Application extends ServerApplication {
     log.warn("********** Shutting down **********");
     sorobanCoordinatorService.stop();
     minerFeeService.stop();
+    feeAddressService.stop();
+    cryptoService.stop();
+    mixResultService.stop();
+    exportService.stop();
   }
 }
@@ -0,0 +1,112 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.whirlpool.server.persistence.to.BanTO;
+import java.sql.Timestamp;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/** In-memory copy of active bans, by identifier. */
+public class BanIndex {
+  private static final Comparator<BanTO> BY_EXPIRATION = Comparator.comparing(BanTO::getExpiration);
+
+  private Map<String, List<BanTO>> bansByIdentifier;
+  private PriorityQueue<BanTO> bansByExpiration; // temporary bans, next expiring first
+  private List<BanTO> addedDuringSync; // bans added since startSync(), null when not syncing
+  private volatile boolean loaded;
+
+  public BanIndex() {
+    this.bansByIdentifier = new HashMap<>();
+    this.bansByExpiration = new PriorityQueue<>(BY_EXPIRATION);
+    this.addedDuringSync = null;
+    this.loaded = false;
+  }
+
+  /** Start tracking added bans, to re-apply them on next load(). Call before querying db. */
+  public synchronized void startSync() {
+    addedDuringSync = new LinkedList<>();
+  }
+
+  /** Replace index with active bans from db, without blocking readers while building it. */
+  public void load(Collection<BanTO> activeBans) {
+    Map<String, List<BanTO>> newBansByIdentifier = new HashMap<>();
+    PriorityQueue<BanTO> newBansByExpiration = new PriorityQueue<>(BY_EXPIRATION);
+    Set<Long> ids = new HashSet<>();
+    for (BanTO banTO : activeBans) {
+      doAdd(banTO, newBansByIdentifier, newBansByExpiration);
+      ids.add(banTO.getId());
+    }
+
+    synchronized (this) {
+      // re-apply bans added while querying db
+      if (addedDuringSync != null) {
+        for (BanTO banTO : addedDuringSync) {
+          if (banTO.getId() == null || !ids.contains(banTO.getId())) {
+            doAdd(banTO, newBansByIdentifier, newBansByExpiration);
+          }
+        }
+        addedDuringSync = null;
+      }
+      bansByIdentifier = newBansByIdentifier;
+      bansByExpiration = newBansByExpiration;
+      loaded = true;
+    }
+  }
+
+  public synchronized void add(BanTO banTO) {
+    evictExpired(new Timestamp(System.currentTimeMillis()));
+    doAdd(banTO, bansByIdentifier, bansByExpiration);
+    if (addedDuringSync != null) {
+      addedDuringSync.add(banTO);
+    }
+  }
+
+  private static void doAdd(
+      BanTO banTO,
+      Map<String, List<BanTO>> bansByIdentifier,
+      PriorityQueue<BanTO> bansByExpiration) {
+    bansByIdentifier.computeIfAbsent(banTO.getIdentifier(), k -> new LinkedList<>()).add(banTO);
+    if (banTO.getExpiration() != null) {
+      bansByExpiration.add(banTO);
+    }
+  }
+
+  // bans for identifier which are permanent or expire after expirationMin
+  public synchronized List<BanTO> find(String identifier, Timestamp expirationMin) {
+    List<BanTO> bans = bansByIdentifier.get(identifier);
+    if (bans == null) {
+      return new LinkedList<>();
+    }
+    return bans.stream()
+        .filter(b -> b.getExpiration() == null || !b.getExpiration().before(expirationMin))
+        .collect(Collectors.toList());
+  }
+
+  public synchronized void evictExpired(Timestamp now) {
+    while (!bansByExpiration.isEmpty() && bansByExpiration.peek().getExpiration().before(now)) {
+      BanTO expired = bansByExpiration.poll();
+      List<BanTO> bans = bansByIdentifier.get(expired.getIdentifier());
+      if (bans != null) {
+        bans.remove(expired);
+        if (bans.isEmpty()) {
+          bansByIdentifier.remove(expired.getIdentifier());
+        }
+      }
+    }
+  }
+
+  public synchronized int getSize() {
+    return bansByIdentifier.values().stream().mapToInt(List::size).sum();
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
@@ -6,26 +6,64 @@ import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 public class InputPool {
+  private static final RandomUtil randomUtil = RandomUtil.getInstance();
+
   private Map<String, RegisteredInput> inputsById;
 
+  // shuffled inputIds not tested yet by removeRandom(), null until next removeRandom()
+  private List<String> candidateInputIds;
+
+  // secondary indexes, updated with inputsById
+  private InputIndex inputsByUsername;
+  private InputIndex inputsByOutPoint;
+  private InputIndex inputsByAddress;
+  private InputIndex inputsBySorobanSender;
+  private List<InputIndex> indexes;
+
   public InputPool() {
     this.inputsById = new ConcurrentHashMap<>();
-  }
-
-  public void register(RegisteredInput registeredInput) {
+    this.inputsByUsername = new InputIndex(input -> input.getUsername());
+    this.inputsByOutPoint = new InputIndex(input -> input.getOutPoint().toKey());
+    this.inputsByAddress =
+        new InputIndex(input -> input.getOutPoint().getToAddress().toLowerCase());
+    this.inputsBySorobanSender =
+        new InputIndex(
+            input ->
+                input.getSorobanInput() != null
+                    ? input.getSorobanInput().getSender().toString()
+                    : null);
+    this.indexes =
+        Arrays.asList(inputsByUsername, inputsByOutPoint, inputsByAddress, inputsBySorobanSender);
+    this.candidateInputIds = null;
+  }
+
+  public synchronized void register(RegisteredInput registeredInput) {
     // overwrite if it was already registered
     String inputId = Utils.computeInputId(registeredInput);
-    inputsById.put(inputId, registeredInput);
+    RegisteredInput previousInput = inputsById.put(inputId, registeredInput);
+    if (previousInput != null) {
+      indexes.forEach(index -> index.remove(inputId, previousInput));
+    } else if (candidateInputIds != null) {
+      addCandidate(inputId);
+    }
+    indexes.forEach(index -> index.add(inputId, registeredInput));
+  }
+
+  private synchronized RegisteredInput removeById(String inputId) {
+    RegisteredInput registeredInput = inputsById.remove(inputId);
+    if (registeredInput != null) {
+      indexes.forEach(index -> index.remove(inputId, registeredInput));
+    }
+    return registeredInput;
   }
 
   public Optional<RegisteredInput> findByUsername(String username) {
-    return inputsById.values().parallelStream()
-        .filter(registeredInput -> username.equals(registeredInput.getUsername()))
-        .findFirst();
+    return inputsByUsername.findFirst(username);
   }
 
   public boolean hasInput(RegisteredInput registeredInput) {
@@ -48,9 +86,7 @@ public class InputPool {
 
   public Optional<RegisteredInput> findByOutPoint(String utxoHash, long utxoIndex) {
     String outpointId = Utils.computeOutpointId(utxoHash, utxoIndex);
-    return inputsById.values().stream()
-        .filter(confirmedInput -> outpointId.equals(confirmedInput.getOutPoint().toKey()))
-        .findFirst();
+    return inputsByOutPoint.findFirst(outpointId);
   }
 
   public boolean hasOutPoint(TxOutPoint outPoint) {
@@ -58,25 +94,15 @@ public class InputPool {
   }
 
   public Optional<RegisteredInput> findBySorobanSender(PaymentCode sender) {
-    return inputsById.values().stream()
-        .filter(
-            confirmedInput ->
-                confirmedInput.getSorobanInput() != null
-                    && confirmedInput.getSorobanInput().getSender().equals(sender))
-        .findFirst();
+    return inputsBySorobanSender.findFirst(sender.toString());
   }
 
   public Optional<RegisteredInput> findByAddress(String address) {
-    String addressToLower = address.toLowerCase();
-    return inputsById.values().stream()
-        .filter(
-            confirmedInput ->
-                addressToLower.equals(confirmedInput.getOutPoint().getToAddress().toLowerCase()))
-        .findFirst();
+    return inputsByAddress.findFirst(address.toLowerCase());
   }
 
   public Collection<RegisteredInput> findByQuarantine(boolean quarantine) {
-    return inputsById.values().parallelStream()
+    return inputsById.values().stream()
         .filter(registeredInput -> registeredInput.isQuarantine() == quarantine)
         .collect(Collectors.toList());
   }
@@ -87,24 +113,36 @@ public class InputPool {
         .collect(Collectors.toList());
   }
 
+  /**
+   * Remove a random input matching filter. Candidates are shuffled once and consumed across calls,
+   * so each call only tests inputs until the first match. Inputs rejected by filter are tested
+   * again after all candidates were consumed, or on clearQuarantine().
+   */
   public synchronized Optional<RegisteredInput> removeRandom(Predicate<RegisteredInput> filter) {
-    List<String> eligibleInputIds =
-        inputsById.entrySet().parallelStream()
-            .filter(e -> filter.test(e.getValue()))
-            .map(entry -> entry.getKey())
-            .collect(Collectors.toList());
-    return removeRandom(eligibleInputIds);
-  }
-
-  private synchronized Optional<RegisteredInput> removeRandom(List<String> eligibleInputIds) {
-    if (!eligibleInputIds.isEmpty()) {
-      String randomInputId = RandomUtil.getInstance().next(eligibleInputIds);
-      RegisteredInput registeredInput = inputsById.remove(randomInputId);
-      return Optional.of(registeredInput);
+    if (candidateInputIds == null) {
+      // shuffle all inputs
+      candidateInputIds = new ArrayList<>(inputsById.size());
+      inputsById.keySet().forEach(inputId -> addCandidate(inputId));
     }
+    while (!candidateInputIds.isEmpty()) {
+      String inputId = candidateInputIds.remove(candidateInputIds.size() - 1);
+      RegisteredInput registeredInput = inputsById.get(inputId);
+      if (registeredInput != null && filter.test(registeredInput)) {
+        removeById(inputId);
+        return Optional.of(registeredInput);
+      }
+    }
+    candidateInputIds = null; // all inputs tested, reshuffle on next call
     return Optional.empty();
   }
 
+  private void addCandidate(String inputId) {
+    // insert at random position to keep candidates shuffled
+    int position = randomUtil.nextInt(candidateInputIds.size() + 1);
+    candidateInputIds.add(inputId);
+    Collections.swap(candidateInputIds, position, candidateInputIds.size() - 1);
+  }
+
   public synchronized Optional<RegisteredInput> removeByUsername(String username) {
     return removeBy(findByUsername(username));
   }
@@ -120,7 +158,7 @@ public class InputPool {
   protected Optional<RegisteredInput> removeBy(Optional<RegisteredInput> input) {
     if (input.isPresent()) {
       String inputId = Utils.computeInputId(input.get());
-      inputsById.remove(inputId);
+      removeById(inputId);
     }
     return input;
   }
@@ -129,11 +167,14 @@ public class InputPool {
     Collection<RegisteredInput> inputs =
         new LinkedList<>(inputsById.values()); // copy to avoid getting cleared next!
     inputsById.clear();
+    indexes.forEach(index -> index.clear());
+    candidateInputIds = null;
     return inputs;
   }
 
   public synchronized void clearQuarantine() {
     findByQuarantine(true).forEach(input -> input.clearQuarantine());
+    candidateInputIds = null; // test all inputs again
   }
 
   public void resetLastUserHash() {
@@ -152,7 +193,7 @@ public class InputPool {
 
   public int getSizeByTor(boolean tor) {
     return (int)
-        inputsById.values().parallelStream()
+        inputsById.values().stream()
             .filter(input -> Boolean.valueOf(tor).equals(input.getTor()))
             .count();
   }
@@ -162,13 +203,13 @@ public class InputPool {
   }
 
   public Collection<RegisteredInput> getListBySoroban(boolean soroban) {
-    return inputsById.values().parallelStream()
+    return inputsById.values().stream()
         .filter(input -> soroban == input.isSoroban())
         .collect(Collectors.toList());
   }
 
   public Collection<SorobanInput> getListSorobanInputs() {
-    return getListBySoroban(true).parallelStream()
+    return getListBySoroban(true).stream()
         .map(confirmedInput -> confirmedInput.getSorobanInput())
         .collect(Collectors.toList());
   }
@@ -178,7 +219,7 @@ public class InputPool {
   }
 
   public Collection<RegisteredInput> getListByLiquidity(boolean liquidity) {
-    return inputsById.values().parallelStream()
+    return inputsById.values().stream()
         .filter(input -> liquidity == input.isLiquidity())
         .collect(Collectors.toList());
   }
@@ -197,4 +238,48 @@ public class InputPool {
             registeredInput -> registeredInput.getSorobanInput().getSorobanLastSeen() < minLastSeen)
         .collect(Collectors.toList());
   }
+
+  /** Inputs grouped by a secondary key (several inputs may share the same key). */
+  private static class InputIndex {
+    private Function<RegisteredInput, String> keyFunction;
+    private Map<String, Map<String, RegisteredInput>> inputsByKey;
+
+    public InputIndex(Function<RegisteredInput, String> keyFunction) {
+      this.keyFunction = keyFunction;
+      this.inputsByKey = new ConcurrentHashMap<>();
+    }
+
+    public void add(String inputId, RegisteredInput registeredInput) {
+      String key = keyFunction.apply(registeredInput);
+      if (key != null) {
+        inputsByKey
+            .computeIfAbsent(key, k -> new ConcurrentHashMap<>())
+            .put(inputId, registeredInput);
+      }
+    }
+
+    public void remove(String inputId, RegisteredInput registeredInput) {
+      String key = keyFunction.apply(registeredInput);
+      if (key != null) {
+        inputsByKey.computeIfPresent(
+            key,
+            (k, inputs) -> {
+              inputs.remove(inputId);
+              return inputs.isEmpty() ? null : inputs;
+            });
+      }
+    }
+
+    public Optional<RegisteredInput> findFirst(String key) {
+      Map<String, RegisteredInput> inputs = inputsByKey.get(key);
+      if (inputs == null) {
+        return Optional.empty();
+      }
+      return inputs.values().stream().findFirst();
+    }
+
+    public void clear() {
+      inputsByKey.clear();
+    }
+  }
 }
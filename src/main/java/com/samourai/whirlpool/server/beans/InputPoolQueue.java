@@ -8,11 +8,17 @@ import com.samourai.wallet.util.AsyncUtil;
 import com.samourai.wallet.util.RandomUtil;
 import com.samourai.whirlpool.protocol.soroban.WhirlpoolApiCoordinator;
 import com.samourai.whirlpool.protocol.soroban.payload.registerInput.RegisterInputRequest;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.services.RegisterInputService;
+import com.samourai.whirlpool.server.utils.ExpiringCache;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Predicate;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -21,11 +27,16 @@ public class InputPoolQueue extends InputPool {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private static final AsyncUtil asyncUtil = AsyncUtil.getInstance();
   private static final RandomUtil randomUtil = RandomUtil.getInstance();
+  private static final long VALIDATION_TIMEOUT_MS = 30000;
+  private static final int VALIDATION_CACHE_SIZE = 10000;
+  private static final long VALIDATION_CACHE_TTL_MS = 120000;
 
   private Pool pool;
   private boolean liquidity;
   private WhirlpoolApiCoordinator whirlpoolApiCoordinator;
   private List<RegisteredInput> sorobanInputs;
+  private ExpiringCache<String, TxOutPoint> validatedOutPoints; // by computeValidationCacheKey()
+  private long validationTimeoutMs;
 
   public InputPoolQueue(
       Pool pool, boolean liquidity, WhirlpoolApiCoordinator whirlpoolApiCoordinator) {
@@ -34,6 +45,8 @@ public class InputPoolQueue extends InputPool {
     this.liquidity = liquidity;
     this.whirlpoolApiCoordinator = whirlpoolApiCoordinator;
     this.sorobanInputs = new LinkedList<>();
+    this.validatedOutPoints = new ExpiringCache<>(VALIDATION_CACHE_SIZE, VALIDATION_CACHE_TTL_MS);
+    this.validationTimeoutMs = VALIDATION_TIMEOUT_MS;
   }
 
   public boolean hasInputsClassicOrSoroban() {
@@ -46,26 +59,104 @@ public class InputPoolQueue extends InputPool {
     List<SorobanItemTyped> sorobanItems =
         asyncUtil.blockingGet(
             whirlpoolApiCoordinator.registerInputFetchRequests(pool.getPoolId(), liquidity));
+    refreshSorobanInputs(sorobanItems, registerInputService);
+  }
 
-    // validate
+  protected synchronized void refreshSorobanInputs(
+      List<SorobanItemTyped> sorobanItems, RegisterInputService registerInputService) {
+    // reuse inputs validated on previous refreshs. Signature and provenance are not re-checked
+    // for a cached input, but blockHeight, balance, confirmations, ban and unspent status are.
     List<RegisteredInput> freshSorobanInputs = new LinkedList<>();
+    Map<SorobanItemTyped, String> cacheKeys = new HashMap<>();
+    List<SorobanItemTyped> cachedItems = new ArrayList<>();
+    List<TxOutPoint> cachedOutPoints = new ArrayList<>();
+    List<SorobanItemTyped> itemsToValidate = new LinkedList<>();
     for (SorobanItemTyped sorobanItemTyped : sorobanItems) {
+      RegisterInputRequest req = readRequest(sorobanItemTyped);
+      String cacheKey = req != null ? computeValidationCacheKey(sorobanItemTyped, req) : null;
+      TxOutPoint outPoint = cacheKey != null ? validatedOutPoints.get(cacheKey) : null;
+      if (cacheKey != null) {
+        cacheKeys.put(sorobanItemTyped, cacheKey);
+      }
+      if (outPoint != null
+          && registerInputService.revalidateRegisterInputRequest(
+              pool, outPoint, liquidity, req.blockHeight)) {
+        cachedItems.add(sorobanItemTyped);
+        cachedOutPoints.add(outPoint);
+      } else {
+        if (outPoint != null) {
+          // no longer valid => full validation to reply error
+          validatedOutPoints.remove(cacheKey);
+        }
+        itemsToValidate.add(sorobanItemTyped);
+      }
+    }
+    if (!cachedItems.isEmpty()) {
+      List<Boolean> stillValids;
       try {
-        RegisteredInput registeredInput =
-            validateSorobanInput(sorobanItemTyped, registerInputService);
-        freshSorobanInputs.add(registeredInput);
-      } catch (IllegalInputException e) {
-        log.info(
-            "REFRESH_SOROBAN_INPUT SKIP_IGNORED "
-                + e.getMessage()
-                + " sender="
-                + sorobanItemTyped.getMetaSender());
+        stillValids = registerInputService.revalidateRegisteredInputs(cachedOutPoints);
       } catch (Exception e) {
+        log.warn("REFRESH_SOROBAN_INPUT unable to revalidate cached inputs: " + e.getMessage());
+        stillValids = Collections.nCopies(cachedItems.size(), false);
+      }
+      for (int i = 0; i < cachedItems.size(); i++) {
+        SorobanItemTyped sorobanItemTyped = cachedItems.get(i);
+        if (stillValids.get(i)) {
+          try {
+            freshSorobanInputs.add(
+                computeCachedSorobanInput(sorobanItemTyped, cachedOutPoints.get(i)));
+            continue;
+          } catch (Exception e) {
+            log.warn("REFRESH_SOROBAN_INPUT unable to reuse cached input: " + e.getMessage());
+          }
+        }
+        // banned or spent since => full validation to reply error
+        validatedOutPoints.remove(cacheKeys.get(sorobanItemTyped));
+        itemsToValidate.add(sorobanItemTyped);
+      }
+    }
+
+    // validate new inputs in parallel
+    Map<SorobanItemTyped, Future<RegisteredInput>> validations = new LinkedHashMap<>();
+    for (SorobanItemTyped sorobanItemTyped : itemsToValidate) {
+      validations.put(
+          sorobanItemTyped,
+          registerInputService
+              .getValidationExecutor()
+              .submit(() -> validateSorobanInput(sorobanItemTyped, registerInputService)));
+    }
+    long timeout = System.currentTimeMillis() + validationTimeoutMs;
+    for (Map.Entry<SorobanItemTyped, Future<RegisteredInput>> entry : validations.entrySet()) {
+      SorobanItemTyped sorobanItemTyped = entry.getKey();
+      Future<RegisteredInput> validation = entry.getValue();
+      try {
+        long waitMs = Math.max(0, timeout - System.currentTimeMillis());
+        RegisteredInput registeredInput = validation.get(waitMs, TimeUnit.MILLISECONDS);
+        freshSorobanInputs.add(registeredInput);
+        String cacheKey = cacheKeys.get(sorobanItemTyped);
+        if (cacheKey != null) {
+          validatedOutPoints.put(cacheKey, registeredInput.getOutPoint());
+        }
+      } catch (TimeoutException e) {
+        validation.cancel(true);
         log.warn(
-            "REFRESH_SOROBAN_INPUT SKIP_ERROR"
-                + e.getMessage()
-                + " sender="
+            "REFRESH_SOROBAN_INPUT SKIP_ERROR validation timeout sender="
                 + sorobanItemTyped.getMetaSender());
+      } catch (ExecutionException e) {
+        Throwable cause = e.getCause();
+        if (cause instanceof IllegalInputException) {
+          log.info(
+              "REFRESH_SOROBAN_INPUT SKIP_IGNORED "
+                  + cause.getMessage()
+                  + " sender="
+                  + sorobanItemTyped.getMetaSender());
+        } else {
+          log.warn(
+              "REFRESH_SOROBAN_INPUT SKIP_ERROR: "
+                  + cause.getMessage()
+                  + " sender="
+                  + sorobanItemTyped.getMetaSender());
+        }
       }
     }
     Collections.shuffle(freshSorobanInputs);
@@ -74,6 +165,42 @@ public class InputPoolQueue extends InputPool {
     this.sorobanInputs = freshSorobanInputs;
   }
 
+  private RegisterInputRequest readRequest(SorobanItemTyped sorobanItemTyped) {
+    try {
+      return sorobanItemTyped.read(RegisterInputRequest.class);
+    } catch (Exception e) {
+      return null; // invalid request, will be rejected by validation
+    }
+  }
+
+  // same request from same sender => same signature and provenance, until expiration
+  private String computeValidationCacheKey(
+      SorobanItemTyped sorobanItemTyped, RegisterInputRequest req) {
+    return sorobanItemTyped.getMetaSender().toString()
+        + ":"
+        + req.utxoHash
+        + ":"
+        + req.utxoIndex
+        + ":"
+        + req.signature;
+  }
+
+  private RegisteredInput computeCachedSorobanInput(
+      SorobanItemTyped sorobanItemTyped, TxOutPoint outPoint) throws Exception {
+    Bip47Encrypter encrypter =
+        whirlpoolApiCoordinator.getRpcSession().getRpcWallet().getBip47Encrypter();
+    SorobanEndpointTyped endpointReply = sorobanItemTyped.getEndpointReply(encrypter);
+    SorobanInput sorobanInput = new SorobanInput(sorobanItemTyped.getMetaSender(), endpointReply);
+    return new RegisteredInput(
+        pool.getPoolId(),
+        sorobanItemTyped.getMetaSender().toString(),
+        liquidity,
+        outPoint,
+        null,
+        null,
+        sorobanInput);
+  }
+
   public synchronized Optional<RegisteredInput> removeRandomClassicOrSoroban(
       Predicate<RegisteredInput> filter) {
     if (randomUtil.nextInt(10) % 2 == 0) {
@@ -136,4 +263,8 @@ public class InputPoolQueue extends InputPool {
   public Collection<RegisteredInput> _getInputsSoroban() {
     return sorobanInputs;
   }
+
+  public void __setValidationTimeoutMs(long validationTimeoutMs) {
+    this.validationTimeoutMs = validationTimeoutMs;
+  }
 }
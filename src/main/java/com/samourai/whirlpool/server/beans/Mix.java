@@ -32,6 +32,7 @@ public class Mix {
 
   private String mixId;
   private AsymmetricCipherKeyPair keyPair;
+  private MixCryptoContext cryptoContext;
   private byte[] publicKey;
   private Timestamp timeStarted;
   private Map<MixStatus, Timestamp> timeStatus;
@@ -43,6 +44,8 @@ public class Mix {
   private MixStatus mixStatus;
   private InputPool confirmingInputs;
   private InputPool confirmedInputs;
+  private Map<String, Integer> nbInputsByUserHash; // for confirmedInputs
+  private Map<String, Integer> nbInputsByTxHash; // for confirmedInputs
 
   private Set<byte[]> bordereaux;
   private Set<String> receiveAddresses;
@@ -51,6 +54,7 @@ public class Mix {
   private Map<String, Boolean> signed;
 
   private Transaction tx;
+  private volatile MixSigningContext signingContext; // set with tx for SIGNING
   private FailReason failReason;
   private String failInfo;
   private List<String> blameInputSenders;
@@ -65,6 +69,7 @@ public class Mix {
     this.created = null;
     this.mixId = mixId;
     this.keyPair = cryptoService.generateKeyPair();
+    this.cryptoContext = cryptoService.computeCryptoContext(keyPair);
     try {
       this.publicKey = cryptoService.computePublicKey(keyPair).getEncoded();
     } catch (Exception e) {
@@ -79,6 +84,8 @@ public class Mix {
     this.mixStatus = MixStatus.CONFIRM_INPUT;
     this.confirmingInputs = new InputPool();
     this.confirmedInputs = new InputPool();
+    this.nbInputsByUserHash = new ConcurrentHashMap<>();
+    this.nbInputsByTxHash = new ConcurrentHashMap<>();
 
     this.bordereaux = new HashSet<>();
     this.receiveAddresses = new HashSet<>();
@@ -335,6 +342,10 @@ public class Mix {
     return keyPair;
   }
 
+  public MixCryptoContext getCryptoContext() {
+    return cryptoContext;
+  }
+
   public byte[] getPublicKey() {
     return publicKey;
   }
@@ -469,8 +480,13 @@ public class Mix {
     return getInputs().getListByLiquidity(true);
   }
 
+  // confirmed inputs which bordereau is still being signed (outside of mix lock)
+  public boolean hasInputsSigningBordereau() {
+    return getInputs()._getInputs().stream().anyMatch(input -> input.getSignedBordereau() == null);
+  }
+
   public long computeMinerFeeAccumulated() {
-    return getInputs()._getInputs().parallelStream()
+    return getInputs()._getInputs().stream()
         .filter(input -> !input.isLiquidity())
         .map(input -> input.computeMinerFees(pool))
         .reduce(0L, Long::sum);
@@ -484,6 +500,8 @@ public class Mix {
     }
     registeredInput.setSignedBordereau(signedBordereau);
     confirmedInputs.register(registeredInput);
+    incrementCounter(nbInputsByUserHash, registeredInput.getLastUserHash());
+    incrementCounter(nbInputsByTxHash, registeredInput.getOutPoint().getHash());
     log.info("MIX_ADD_INPUT_" + registeredInput.getTypeStr() + " " + mixId + " " + registeredInput);
   }
 
@@ -496,13 +514,36 @@ public class Mix {
 
   public synchronized void unregisterInput(RegisteredInput confirmedInput) {
     log.info("MIX_REMOVE_INPUT " + mixId + " " + confirmedInput);
-    confirmedInputs.remove(confirmedInput);
+    if (confirmedInputs.remove(confirmedInput).isPresent()) {
+      decrementCounter(nbInputsByUserHash, confirmedInput.getLastUserHash());
+      decrementCounter(nbInputsByTxHash, confirmedInput.getOutPoint().getHash());
+    }
     confirmedInput.setSignedBordereau(null);
   }
 
+  private static void incrementCounter(Map<String, Integer> counters, String key) {
+    if (key != null) {
+      counters.merge(key, 1, Integer::sum);
+    }
+  }
+
+  private static void decrementCounter(Map<String, Integer> counters, String key) {
+    if (key != null) {
+      counters.computeIfPresent(key, (k, count) -> count > 1 ? count - 1 : null);
+    }
+  }
+
+  public int getNbInputsByUserHash(String userHash) {
+    return nbInputsByUserHash.getOrDefault(userHash, 0);
+  }
+
+  public int getNbInputsByTxHash(String txHash) {
+    return nbInputsByTxHash.getOrDefault(txHash, 0);
+  }
+
   public String computeInputsHash() {
     Collection<Utxo> inputs =
-        getInputs()._getInputs().parallelStream()
+        getInputs()._getInputs().stream()
             .map(confirmedInput -> confirmedInput.getOutPoint())
             .map(input -> new Utxo(input.getHash(), input.getIndex()))
             .collect(Collectors.toList());
@@ -571,7 +612,7 @@ public class Mix {
   }
 
   public List<RegisteredInput> getInputsNotRevealedOutput() {
-    return getInputs()._getInputs().parallelStream()
+    return getInputs()._getInputs().stream()
         .filter(input -> !hasRevealedOutput(input))
         .collect(Collectors.toList());
   }
@@ -594,7 +635,7 @@ public class Mix {
   }
 
   public List<RegisteredInput> getInputsNotSigned() {
-    return getInputs()._getInputs().parallelStream()
+    return getInputs()._getInputs().stream()
         .filter(input -> !isSigned(input))
         .collect(Collectors.toList());
   }
@@ -607,6 +648,14 @@ public class Mix {
     return tx;
   }
 
+  public void setSigningContext(MixSigningContext signingContext) {
+    this.signingContext = signingContext;
+  }
+
+  public MixSigningContext getSigningContext() {
+    return signingContext;
+  }
+
   public void setFailReason(FailReason failReason) {
     this.failReason = failReason;
   }
@@ -0,0 +1,96 @@
+package com.samourai.whirlpool.server.beans;
+
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import org.bouncycastle.crypto.AsymmetricBlockCipher;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.engines.RSABlindedEngine;
+import org.bouncycastle.crypto.engines.RSAEngine;
+import org.bouncycastle.crypto.params.ParametersWithRandom;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
+import org.bouncycastle.crypto.signers.PSSSigner;
+
+/**
+ * RSA engines of a mix, initialized once with the mix keyPair and reused across requests. Private
+ * key operations use CRT parameters (from RSAKeyPairGenerator) and optional RSA blinding against
+ * timing attacks.
+ */
+public class MixCryptoContext {
+  private static final SecureRandom secureRandom = new SecureRandom();
+  private static final int PSS_SALT_LENGTH = 32;
+
+  private AsymmetricCipherKeyPair keyPair;
+  private boolean blinding;
+  private Queue<AsymmetricBlockCipher> signers; // idle engines, one per concurrent caller
+  private Queue<PSSSigner> verifiers; // idle verifiers, one per concurrent caller
+
+  public MixCryptoContext(AsymmetricCipherKeyPair keyPair, boolean blinding) {
+    this.keyPair = keyPair;
+    this.blinding = blinding;
+    this.signers = new ConcurrentLinkedQueue<>();
+    this.verifiers = new ConcurrentLinkedQueue<>();
+  }
+
+  // blinded output must fit in the RSA modulus to be signed
+  public boolean isValidBlindedOutput(byte[] blindedOutput) {
+    if (blindedOutput == null || blindedOutput.length == 0) {
+      return false;
+    }
+    BigInteger modulus = ((RSAKeyParameters) keyPair.getPublic()).getModulus();
+    if (blindedOutput.length > (modulus.bitLength() + 7) / 8) {
+      return false;
+    }
+    return new BigInteger(1, blindedOutput).compareTo(modulus) < 0;
+  }
+
+  public byte[] signBlindedOutput(byte[] blindedOutput) {
+    AsymmetricBlockCipher signer = signers.poll();
+    if (signer == null) {
+      signer = computeSigner();
+    }
+    try {
+      return signer.processBlock(blindedOutput, 0, blindedOutput.length);
+    } finally {
+      signers.offer(signer);
+    }
+  }
+
+  public boolean verifyUnblindedSignedBordereau(
+      byte[] revealedBordereau, byte[] unblindedSignedBordereau) {
+    PSSSigner verifier = verifiers.poll();
+    if (verifier == null) {
+      verifier = computeVerifier();
+    }
+    try {
+      verifier.update(revealedBordereau, 0, revealedBordereau.length);
+      return verifier.verifySignature(unblindedSignedBordereau); // also resets verifier
+    } finally {
+      verifiers.offer(verifier);
+    }
+  }
+
+  private AsymmetricBlockCipher computeSigner() {
+    // using 'true' always generates full-length signature (otherwise it's sometimes 1 byte less)
+    if (blinding) {
+      RSABlindedEngine engine = new RSABlindedEngine();
+      engine.init(true, new ParametersWithRandom(keyPair.getPrivate(), secureRandom));
+      return engine;
+    }
+    RSAEngine engine = new RSAEngine();
+    engine.init(true, keyPair.getPrivate());
+    return engine;
+  }
+
+  private PSSSigner computeVerifier() {
+    PSSSigner verifier = new PSSSigner(new RSAEngine(), new SHA256Digest(), PSS_SALT_LENGTH);
+    verifier.init(false, keyPair.getPublic());
+    return verifier;
+  }
+
+  public AsymmetricCipherKeyPair getKeyPair() {
+    return keyPair;
+  }
+}
@@ -0,0 +1,130 @@
+package com.samourai.whirlpool.server.beans;
+
+import static com.samourai.whirlpool.server.utils.Utils.computeOutpointId;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.core.TransactionWitness;
+import org.bitcoinj.core.Utils;
+import org.bitcoinj.crypto.TransactionSignature;
+
+/**
+ * Immutable signing data of a mix tx (input indexes, BIP143 midstates), computed once when SIGNING
+ * starts. Allows verifying P2WPKH signatures concurrently without touching the (mutable) mix tx.
+ */
+public class MixSigningContext {
+  private static final int SIGHASH_ALL = Transaction.SigHash.ALL.value;
+
+  private Transaction tx;
+  private long version;
+  private long lockTime;
+  private Map<String, Integer> inputIndexByOutPoint; // by outpointId
+  private byte[][] outPoints; // serialized outpoint by input index
+  private long[] sequences; // nSequence by input index
+  private byte[] hashPrevouts;
+  private byte[] hashSequence;
+  private byte[] hashOutputs;
+
+  public MixSigningContext(Transaction tx) throws IOException {
+    this.tx = tx;
+    this.version = tx.getVersion();
+    this.lockTime = tx.getLockTime();
+
+    int nbInputs = tx.getInputs().size();
+    this.inputIndexByOutPoint = new HashMap<>(nbInputs * 2);
+    this.outPoints = new byte[nbInputs][];
+    this.sequences = new long[nbInputs];
+    ByteArrayOutputStream prevouts = new ByteArrayOutputStream(36 * nbInputs);
+    ByteArrayOutputStream sequence = new ByteArrayOutputStream(4 * nbInputs);
+    for (int i = 0; i < nbInputs; i++) {
+      TransactionInput input = tx.getInput(i);
+      TransactionOutPoint outPoint = input.getOutpoint();
+      String outpointId = computeOutpointId(outPoint.getHash().toString(), outPoint.getIndex());
+      inputIndexByOutPoint.put(outpointId, i);
+      outPoints[i] = outPoint.bitcoinSerialize();
+      sequences[i] = input.getSequenceNumber();
+      prevouts.write(outPoints[i]);
+      Utils.uint32ToByteStreamLE(sequences[i], sequence);
+    }
+    ByteArrayOutputStream outputs = new ByteArrayOutputStream(32 * tx.getOutputs().size());
+    for (TransactionOutput output : tx.getOutputs()) {
+      outputs.write(output.bitcoinSerialize());
+    }
+    this.hashPrevouts = Sha256Hash.hashTwice(prevouts.toByteArray());
+    this.hashSequence = Sha256Hash.hashTwice(sequence.toByteArray());
+    this.hashOutputs = Sha256Hash.hashTwice(outputs.toByteArray());
+  }
+
+  public Integer findInputIndex(String utxoHash, long utxoIndex) {
+    String outpointId = computeOutpointId(utxoHash, utxoIndex);
+    return inputIndexByOutPoint.get(outpointId);
+  }
+
+  /**
+   * Verify a P2WPKH SIGHASH_ALL witness for an input.
+   *
+   * @return signature validity, or null when witness is not supported by this fast path
+   */
+  public Boolean verifyWitness(
+      int inputIndex, TransactionWitness witness, long value, byte[] scriptPubKey)
+      throws IOException {
+    if (witness.getPushCount() != 2) {
+      return null;
+    }
+    byte[] pubKey = witness.getPush(1);
+    byte[] pubKeyHash = Utils.sha256hash160(pubKey);
+    if (!isP2wpkh(scriptPubKey, pubKeyHash)) {
+      return null;
+    }
+    TransactionSignature signature;
+    try {
+      signature = TransactionSignature.decodeFromBitcoin(witness.getPush(0), true, false);
+    } catch (Exception e) {
+      return false;
+    }
+    if (signature.sighashFlags != SIGHASH_ALL) {
+      return null;
+    }
+    byte[] sigHash = computeSigHash(inputIndex, pubKeyHash, value);
+    return ECKey.verify(sigHash, signature, pubKey);
+  }
+
+  private boolean isP2wpkh(byte[] scriptPubKey, byte[] pubKeyHash) {
+    return scriptPubKey.length == 22
+        && scriptPubKey[0] == 0x00
+        && scriptPubKey[1] == 0x14
+        && Arrays.equals(Arrays.copyOfRange(scriptPubKey, 2, 22), pubKeyHash);
+  }
+
+  // BIP143 preimage for P2WPKH SIGHASH_ALL
+  private byte[] computeSigHash(int inputIndex, byte[] pubKeyHash, long value) throws IOException {
+    ByteArrayOutputStream preimage = new ByteArrayOutputStream(182);
+    Utils.uint32ToByteStreamLE(version, preimage);
+    preimage.write(hashPrevouts);
+    preimage.write(hashSequence);
+    preimage.write(outPoints[inputIndex]);
+    // scriptCode: OP_DUP OP_HASH160 <pubKeyHash> OP_EQUALVERIFY OP_CHECKSIG
+    preimage.write(new byte[] {0x19, 0x76, (byte) 0xa9, 0x14});
+    preimage.write(pubKeyHash);
+    preimage.write(new byte[] {(byte) 0x88, (byte) 0xac});
+    Utils.int64ToByteStreamLE(value, preimage);
+    Utils.uint32ToByteStreamLE(sequences[inputIndex], preimage);
+    preimage.write(hashOutputs);
+    Utils.uint32ToByteStreamLE(lockTime, preimage);
+    Utils.uint32ToByteStreamLE(SIGHASH_ALL, preimage);
+    return Sha256Hash.hashTwice(preimage.toByteArray());
+  }
+
+  public Transaction getTx() {
+    return tx;
+  }
+}
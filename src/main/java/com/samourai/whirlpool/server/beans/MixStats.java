@@ -11,6 +11,13 @@ public class MixStats {
     this.sumAmountOut = sumAmountOut;
   }
 
+  public MixStats add(MixStats mixStats) {
+    return new MixStats(
+        nbMixs + mixStats.nbMixs,
+        sumMustMix + mixStats.sumMustMix,
+        sumAmountOut + mixStats.sumAmountOut);
+  }
+
   public long getNbMixs() {
     return nbMixs;
   }
@@ -0,0 +1,67 @@
+package com.samourai.whirlpool.server.beans;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/** In-memory totals of successful mixs, overall, by pool and by day. */
+public class MixStatsIndex {
+  private static final MixStats EMPTY = new MixStats(0, 0, 0);
+
+  private MixStats total;
+  private Map<String, MixStats> byPool;
+  private TreeMap<LocalDate, MixStats> byDay;
+  private volatile boolean loaded;
+
+  public MixStatsIndex() {
+    this.total = EMPTY;
+    this.byPool = new HashMap<>();
+    this.byDay = new TreeMap<>();
+    this.loaded = false;
+  }
+
+  public synchronized void clear() {
+    total = EMPTY;
+    byPool.clear();
+    byDay.clear();
+  }
+
+  public synchronized void setLoaded() {
+    loaded = true;
+  }
+
+  public synchronized void unsetLoaded() {
+    loaded = false;
+  }
+
+  public synchronized void add(String poolId, LocalDate day, MixStats mixStats) {
+    total = total.add(mixStats);
+    byPool.merge(poolId, mixStats, MixStats::add);
+    byDay.merge(day, mixStats, MixStats::add);
+  }
+
+  public synchronized MixStats getTotal() {
+    return total;
+  }
+
+  public synchronized MixStats getByPool(String poolId) {
+    return byPool.getOrDefault(poolId, EMPTY);
+  }
+
+  public synchronized MixStats getByDay(LocalDate day) {
+    return byDay.getOrDefault(day, EMPTY);
+  }
+
+  public synchronized Map<String, MixStats> getByPool() {
+    return new HashMap<>(byPool);
+  }
+
+  public synchronized Map<LocalDate, MixStats> getByDay(LocalDate from, LocalDate to) {
+    return new TreeMap<>(byDay.subMap(from, true, to, true));
+  }
+
+  public boolean isLoaded() {
+    return loaded;
+  }
+}
@@ -3,6 +3,7 @@ package com.samourai.whirlpool.server.beans;
 import com.samourai.wallet.util.FeeUtil;
 import com.samourai.whirlpool.protocol.WhirlpoolProtocol;
 import com.samourai.whirlpool.protocol.soroban.WhirlpoolApiCoordinator;
+import java.util.concurrent.locks.ReentrantLock;
 
 public class Pool {
   private static final FeeUtil feeUtil = FeeUtil.getInstance();
@@ -23,6 +24,7 @@ public class Pool {
   private Mix currentMix;
   private InputPoolQueue mustMixQueue;
   private InputPoolQueue liquidityQueue;
+  private final ReentrantLock mixLock; // serializes mix state changes for this pool only
 
   public Pool(
       String poolId,
@@ -51,6 +53,7 @@ public class Pool {
 
     this.mustMixQueue = new InputPoolQueue(this, false, whirlpoolApiCoordinator);
     this.liquidityQueue = new InputPoolQueue(this, true, whirlpoolApiCoordinator);
+    this.mixLock = new ReentrantLock();
   }
 
   public long computeTxSize(int surges) {
@@ -172,6 +175,10 @@ public class Pool {
     return liquidityQueue;
   }
 
+  public ReentrantLock getMixLock() {
+    return mixLock;
+  }
+
   public PoolMinerFee getMinerFee() {
     return minerFee;
   }
@@ -14,7 +14,7 @@ public class RegisteredInput {
   private SorobanInput sorobanInput; // null for non-Soroban clients
   private Long confirmingSince; // null until confirming
   private String quarantineReason; // only set when on "quarantine" for current mix
-  private byte[] signedBordereau; // after input confirmation
+  private volatile byte[] signedBordereau; // after input confirmation
 
   public RegisteredInput(
       String poolId,
@@ -1,6 +1,5 @@
 package com.samourai.whirlpool.server.beans.export;
 
-import com.opencsv.bean.CsvBindByPosition;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.utils.Utils;
@@ -13,31 +12,18 @@ import javax.servlet.http.HttpServletRequest;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ActivityCsv {
+public class ActivityCsv implements CsvRow {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   public static final String[] HEADERS =
       new String[] {"date", "activity", "poolId", "arg", "details", "ip", "clientDetails"};
 
-  @CsvBindByPosition(position = 0)
   private Timestamp date;
-
-  @CsvBindByPosition(position = 1)
   private String activity;
-
-  @CsvBindByPosition(position = 2)
   private String poolId;
-
-  @CsvBindByPosition(position = 3)
   private String arg;
-
-  @CsvBindByPosition(position = 4)
   private String details;
-
-  @CsvBindByPosition(position = 5)
   private Boolean tor;
-
-  @CsvBindByPosition(position = 6)
   private String clientDetails;
 
   public ActivityCsv(
@@ -149,6 +135,19 @@ public class ActivityCsv {
     return clientDetails;
   }
 
+  @Override
+  public String[] toCsvRow() {
+    return new String[] {
+      CsvRow.toCsvValue(date),
+      CsvRow.toCsvValue(activity),
+      CsvRow.toCsvValue(poolId),
+      CsvRow.toCsvValue(arg),
+      CsvRow.toCsvValue(details),
+      CsvRow.toCsvValue(tor),
+      CsvRow.toCsvValue(clientDetails)
+    };
+  }
+
   public Timestamp getDate() {
     return date;
   }
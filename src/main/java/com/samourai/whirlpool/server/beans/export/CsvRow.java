@@ -0,0 +1,10 @@
+package com.samourai.whirlpool.server.beans.export;
+
+/** Bean exported as a CSV row, with columns in HEADERS order. */
+public interface CsvRow {
+  String[] toCsvRow();
+
+  static String toCsvValue(Object value) {
+    return value != null ? value.toString() : "";
+  }
+}
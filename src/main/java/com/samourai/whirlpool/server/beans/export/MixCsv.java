@@ -1,6 +1,5 @@
 package com.samourai.whirlpool.server.beans.export;
 
-import com.opencsv.bean.CsvBindByPosition;
 import com.samourai.whirlpool.server.beans.FailReason;
 import com.samourai.whirlpool.server.beans.MixStatus;
 import com.samourai.whirlpool.server.persistence.to.MixTO;
@@ -8,7 +7,7 @@ import java.sql.Timestamp;
 import javax.persistence.EnumType;
 import javax.persistence.Enumerated;
 
-public class MixCsv {
+public class MixCsv implements CsvRow {
 
   public static final String[] HEADERS =
       new String[] {
@@ -31,66 +30,39 @@ public class MixCsv {
         "txid"
       };
 
-  @CsvBindByPosition(position = 0)
   private Long id;
-
-  @CsvBindByPosition(position = 1)
   private Timestamp created;
-
-  @CsvBindByPosition(position = 2)
   private Timestamp updated;
 
   //
 
-  @CsvBindByPosition(position = 3)
   private String poolId;
-
-  @CsvBindByPosition(position = 4)
   private String mixId;
-
-  @CsvBindByPosition(position = 5)
   private long denomination;
-
-  @CsvBindByPosition(position = 6)
   private int anonymitySet;
-
-  @CsvBindByPosition(position = 7)
   private int nbMustMix;
-
-  @CsvBindByPosition(position = 8)
   private int nbLiquidities;
-
-  @CsvBindByPosition(position = 9)
   private long amountIn;
-
-  @CsvBindByPosition(position = 10)
   private long amountOut;
-
-  @CsvBindByPosition(position = 11)
   private Long feesAmount;
-
-  @CsvBindByPosition(position = 12)
   private Long feesPrice;
-
-  @CsvBindByPosition(position = 13)
   private int mixDuration;
 
-  @CsvBindByPosition(position = 14)
   @Enumerated(EnumType.STRING)
   private MixStatus mixStatus;
 
-  @CsvBindByPosition(position = 15)
   @Enumerated(EnumType.STRING)
   private FailReason failReason;
 
-  @CsvBindByPosition(position = 16)
   private String failInfo;
 
   //
 
-  @CsvBindByPosition(position = 17)
   private String txid;
 
+  // for mix journal deserialization
+  protected MixCsv() {}
+
   public MixCsv(MixTO to) {
     this.id = to.getId();
     this.created = to.getCreated();
@@ -117,6 +89,36 @@ public class MixCsv {
     }
   }
 
+  // set database identity once the TO was saved
+  public void onSaved(MixTO to) {
+    this.id = to.getId();
+    this.created = to.getCreated();
+  }
+
+  @Override
+  public String[] toCsvRow() {
+    return new String[] {
+      CsvRow.toCsvValue(id),
+      CsvRow.toCsvValue(created),
+      CsvRow.toCsvValue(updated),
+      CsvRow.toCsvValue(poolId),
+      CsvRow.toCsvValue(mixId),
+      CsvRow.toCsvValue(denomination),
+      CsvRow.toCsvValue(anonymitySet),
+      CsvRow.toCsvValue(nbMustMix),
+      CsvRow.toCsvValue(nbLiquidities),
+      CsvRow.toCsvValue(amountIn),
+      CsvRow.toCsvValue(amountOut),
+      CsvRow.toCsvValue(feesAmount),
+      CsvRow.toCsvValue(feesPrice),
+      CsvRow.toCsvValue(mixDuration),
+      CsvRow.toCsvValue(mixStatus),
+      CsvRow.toCsvValue(failReason),
+      CsvRow.toCsvValue(failInfo),
+      CsvRow.toCsvValue(txid)
+    };
+  }
+
   public Long getId() {
     return id;
   }
@@ -19,6 +19,13 @@ public class RpcTransaction {
     this.txTime = rpcRawTransaction.getTxTime();
   }
 
+  public RpcTransaction(RpcTransaction rpcTransaction, int confirmations) {
+    // reuse already parsed tx
+    this.tx = rpcTransaction.tx;
+    this.confirmations = confirmations;
+    this.txTime = rpcTransaction.txTime;
+  }
+
   public int getConfirmations() {
     return confirmations;
   }
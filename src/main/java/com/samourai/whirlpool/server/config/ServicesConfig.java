@@ -27,6 +27,8 @@ import com.samourai.whirlpool.protocol.v0.WhirlpoolEndpointV0;
 import com.samourai.whirlpool.protocol.v0.WhirlpoolProtocolV0;
 import com.samourai.whirlpool.server.services.BackendService;
 import com.samourai.whirlpool.server.services.JavaHttpClientService;
+import com.samourai.whirlpool.server.services.MetricService;
+import com.samourai.whirlpool.server.utils.BlockingRejectedExecutionHandler;
 import java.lang.invoke.MethodHandles;
 import org.bouncycastle.jce.provider.BouncyCastleProvider;
 import org.slf4j.Logger;
@@ -34,15 +36,18 @@ import org.slf4j.LoggerFactory;
 import org.springframework.cache.annotation.EnableCaching;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
-import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.core.task.TaskExecutor;
 import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableCaching
 @EnableScheduling
 public class ServicesConfig extends ServerServicesConfig {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int SOROBAN_INPUT_VALIDATION_THREADS = 8;
 
   protected WhirlpoolServerConfig whirlpoolServerConfig;
 
@@ -52,8 +57,38 @@ public class ServicesConfig extends ServerServicesConfig {
   }
 
   @Bean
-  TaskExecutor taskExecutor() {
-    return new SimpleAsyncTaskExecutor();
+  @Primary
+  TaskExecutor taskExecutor(MetricService metricService) {
+    // bounded pool, backing WSMessageService and WSSessionService.
+    // Tasks may block (websocket sends to slow clients), so threads are started up to poolSize
+    // before queueing, and idle threads are released.
+    WhirlpoolServerConfig.ExecutorConfig executorConfig = whirlpoolServerConfig.getTaskExecutor();
+    ThreadPoolTaskExecutor taskExecutor = new ThreadPoolTaskExecutor();
+    taskExecutor.setCorePoolSize(executorConfig.getPoolSize());
+    taskExecutor.setMaxPoolSize(executorConfig.getPoolSize());
+    taskExecutor.setKeepAliveSeconds(60);
+    taskExecutor.setAllowCoreThreadTimeOut(true);
+    taskExecutor.setQueueCapacity(executorConfig.getQueueCapacity());
+    taskExecutor.setThreadNamePrefix("task-");
+    // queue full => wait for room, mix-protocol messages must never be dropped
+    taskExecutor.setRejectedExecutionHandler(
+        new BlockingRejectedExecutionHandler(
+            "taskExecutor",
+            executorConfig.getOfferTimeout(),
+            () -> metricService.onExecutorRejected("task")));
+    metricService.manageExecutor("task", () -> taskExecutor.getThreadPoolExecutor());
+    return taskExecutor;
+  }
+
+  @Bean
+  AsyncTaskExecutor sorobanInputValidationExecutor(MetricService metricService) {
+    // shared by all pool queues, bounds concurrent RPC calls for Soroban input validations
+    ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+    executor.setCorePoolSize(SOROBAN_INPUT_VALIDATION_THREADS);
+    executor.setMaxPoolSize(SOROBAN_INPUT_VALIDATION_THREADS);
+    executor.setThreadNamePrefix("sorobanInputValidation-");
+    metricService.manageExecutor("sorobanInputValidation", () -> executor.getThreadPoolExecutor());
+    return executor;
   }
 
   @Bean
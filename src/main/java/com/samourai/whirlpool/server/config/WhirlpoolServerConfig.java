@@ -31,6 +31,7 @@ public class WhirlpoolServerConfig extends ServerConfig {
   private MinerFeePerBConfig feePerB; // for MinerFeeService
   private TorProxyConfig torProxy;
   private boolean testMode;
+  private boolean rsaBlinding;
   private FailMode failMode;
   private boolean testnet;
   private boolean mixEnabled;
@@ -45,6 +46,7 @@ public class WhirlpoolServerConfig extends ServerConfig {
   private RegisterInputConfig registerInput;
   private BanConfig ban;
   private ExportConfig export;
+  private ExecutorConfig taskExecutor = new ExecutorConfig();
   private PartnerConfig[] partners;
   private PoolConfig[] pools;
   private String[] sorobanNodes;
@@ -96,6 +98,14 @@ public class WhirlpoolServerConfig extends ServerConfig {
     this.testMode = testMode;
   }
 
+  public boolean isRsaBlinding() {
+    return rsaBlinding;
+  }
+
+  public void setRsaBlinding(boolean rsaBlinding) {
+    this.rsaBlinding = rsaBlinding;
+  }
+
   public FailMode getFailMode() {
     return failMode;
   }
@@ -174,6 +184,14 @@ public class WhirlpoolServerConfig extends ServerConfig {
     this.rpcClient = rpcClient;
   }
 
+  public ExecutorConfig getTaskExecutor() {
+    return taskExecutor;
+  }
+
+  public void setTaskExecutor(ExecutorConfig taskExecutor) {
+    this.taskExecutor = taskExecutor;
+  }
+
   public RegisterInputConfig getRegisterInput() {
     return registerInput;
   }
@@ -322,6 +340,7 @@ public class WhirlpoolServerConfig extends ServerConfig {
     private long period;
     private long expiration;
     private int recidivismFactor;
+    private long blameSyncDelay = 60;
 
     public int getBlames() {
       return blames;
@@ -354,6 +373,14 @@ public class WhirlpoolServerConfig extends ServerConfig {
     public void setRecidivismFactor(int recidivismFactor) {
       this.recidivismFactor = recidivismFactor;
     }
+
+    public long getBlameSyncDelay() {
+      return blameSyncDelay;
+    }
+
+    public void setBlameSyncDelay(long blameSyncDelay) {
+      this.blameSyncDelay = blameSyncDelay;
+    }
   }
 
   public static class ExportConfig {
@@ -380,6 +407,9 @@ public class WhirlpoolServerConfig extends ServerConfig {
   public static class ExportItemConfig {
     private String filename;
     private String directory;
+    private ExportRotation rotation = ExportRotation.NONE;
+    private long rotationMaxSize = 100 * 1024 * 1024; // bytes, for SIZE rotation
+    private boolean rotationGzip = true;
 
     public String getFilename() {
       return filename;
@@ -396,6 +426,36 @@ public class WhirlpoolServerConfig extends ServerConfig {
     public void setDirectory(String directory) {
       this.directory = directory;
     }
+
+    public ExportRotation getRotation() {
+      return rotation;
+    }
+
+    public void setRotation(ExportRotation rotation) {
+      this.rotation = rotation;
+    }
+
+    public long getRotationMaxSize() {
+      return rotationMaxSize;
+    }
+
+    public void setRotationMaxSize(long rotationMaxSize) {
+      this.rotationMaxSize = rotationMaxSize;
+    }
+
+    public boolean isRotationGzip() {
+      return rotationGzip;
+    }
+
+    public void setRotationGzip(boolean rotationGzip) {
+      this.rotationGzip = rotationGzip;
+    }
+  }
+
+  public enum ExportRotation {
+    NONE,
+    DAILY,
+    SIZE
   }
 
   public static class PartnerConfig {
@@ -571,6 +631,36 @@ public class WhirlpoolServerConfig extends ServerConfig {
     }
   }
 
+  public static class ExecutorConfig {
+    private int poolSize = 128;
+    private int queueCapacity = 10000;
+    private long offerTimeout = 5000;
+
+    public int getPoolSize() {
+      return poolSize;
+    }
+
+    public void setPoolSize(int poolSize) {
+      this.poolSize = poolSize;
+    }
+
+    public int getQueueCapacity() {
+      return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+      this.queueCapacity = queueCapacity;
+    }
+
+    public long getOfferTimeout() {
+      return offerTimeout;
+    }
+
+    public void setOfferTimeout(long offerTimeout) {
+      this.offerTimeout = offerTimeout;
+    }
+  }
+
   public static class RpcClientConfig {
     @NotEmpty private String protocol;
     @NotEmpty private String host;
@@ -642,6 +732,7 @@ public class WhirlpoolServerConfig extends ServerConfig {
     private SecretWalletConfig secretWallet; // for >= FeeOpReturnImplV1
     private Map<String, ScodeSamouraiFeeConfig> scodes = new HashMap<>(); // -32,768 to 32,767
     private Map<String, ScodeSamouraiFeeConfig> scodesUpperCase;
+    private int scodesVersion = 0; // incremented on scodes change
 
     public void validate() throws Exception {
       for (Map.Entry<String, ScodeSamouraiFeeConfig> scodeEntry : scodes.entrySet()) {
@@ -681,6 +772,11 @@ public class WhirlpoolServerConfig extends ServerConfig {
     public void setScodes(Map<String, ScodeSamouraiFeeConfig> scodes) {
       this.scodes = scodes;
       this.scodesUpperCase = null;
+      this.scodesVersion++;
+    }
+
+    public int getScodesVersion() {
+      return scodesVersion;
     }
   }
 
@@ -972,6 +1068,7 @@ public class WhirlpoolServerConfig extends ServerConfig {
             + samouraiNetwork);
     configInfo.put("testMode", String.valueOf(testMode));
     configInfo.put("failMode", String.valueOf(failMode));
+    configInfo.put("rsaBlinding", String.valueOf(rsaBlinding));
     configInfo.put("torProxy", torProxy.getHost() + ":" + torProxy.getPort());
     configInfo.put(
         "metrics", "metricsUrlApp=" + metricsUrlApp + ", metricsUrlSystem=" + metricsUrlSystem);
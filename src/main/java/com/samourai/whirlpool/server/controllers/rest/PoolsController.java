@@ -38,7 +38,7 @@ public class PoolsController extends AbstractRestController {
   }
 
   protected Collection<PoolInfo> computePoolInfosV0() {
-    return poolService.getPools().parallelStream()
+    return poolService.getPools().stream()
         .map(
             pool -> {
               Mix currentMix = pool.getCurrentMix();
@@ -80,9 +80,11 @@ public class ConfirmInputControllerSoroban extends AbstractPerMixControllerSorob
     return confirmInputResponse(confirmingInput);
   }
 
-  private ConfirmInputResponse confirmInputResponse(RegisteredInput confirmedInput) {
+  private ConfirmInputResponse confirmInputResponse(RegisteredInput confirmedInput)
+      throws IllegalInputException {
+    byte[] signedBordereau = confirmInputService.getSignedBordereau(confirmedInput);
     confirmedInput.getSorobanInput().setSorobanLastSeen();
-    String signedBordereau64 = WhirlpoolProtocol.encodeBytes(confirmedInput.getSignedBordereau());
+    String signedBordereau64 = WhirlpoolProtocol.encodeBytes(signedBordereau);
     return new ConfirmInputResponse(signedBordereau64);
   }
 }
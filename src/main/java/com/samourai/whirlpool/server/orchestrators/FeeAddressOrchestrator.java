@@ -0,0 +1,29 @@
+package com.samourai.whirlpool.server.orchestrators;
+
+import com.samourai.wallet.util.AbstractOrchestrator;
+import com.samourai.whirlpool.server.services.FeeAddressService;
+import java.lang.invoke.MethodHandles;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+public class FeeAddressOrchestrator extends AbstractOrchestrator {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int LOOP_DELAY = 30000; // 30s, or when notified
+
+  private FeeAddressService feeAddressService;
+
+  public FeeAddressOrchestrator(FeeAddressService feeAddressService) {
+    super(LOOP_DELAY, 0, null);
+    this.feeAddressService = feeAddressService;
+  }
+
+  @Override
+  protected void runOrchestrator() {
+    try {
+      // fetch next fee addresses from xManager, if handed out
+      feeAddressService.prefetch();
+    } catch (Exception e) {
+      log.error("Failed to prefetch fee addresses", e);
+    }
+  }
+}
@@ -1,5 +1,6 @@
 package com.samourai.whirlpool.server.orchestrators;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.samourai.soroban.client.endpoint.meta.typed.SorobanItemTyped;
 import com.samourai.soroban.client.rpc.RpcSession;
 import com.samourai.wallet.httpClient.HttpUsage;
@@ -14,6 +15,12 @@ import com.samourai.whirlpool.server.services.monitoring.MonitoringService;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import org.apache.commons.lang3.ArrayUtils;
 import org.apache.commons.lang3.StringUtils;
@@ -29,10 +36,13 @@ public class SorobanUpStatusOrchestrator extends AbstractOrchestrator {
   private static final int LOOP_DELAY = 90000; // every 1min30 after last loop
   private static final int PROPAGATION_DELAY = 10000; // 10sec
   private static final int MIN_PROPAGATION = 2; // require at least 2 nodes synchronized
+  private static final int IO_THREADS = 8; // max concurrent requests to soroban nodes
+  private static final long IO_TIMEOUT = 30000; // 30sec for all nodes
 
   private WhirlpoolServerConfig serverConfig;
   private WhirlpoolApiCoordinator whirlpoolApiCoordinator;
   private MonitoringService monitoringService;
+  private ExecutorService ioExecutor; // blocking soroban requests, off the common ForkJoin pool
 
   private Map<Boolean, Pair<Integer, Integer>> status; // pair(nbUp,nbDown) per onion
   private boolean statusAllDown;
@@ -49,6 +59,10 @@ public class SorobanUpStatusOrchestrator extends AbstractOrchestrator {
     // use alternate identity to toggle Tor usage without affecting other connections
     this.whirlpoolApiCoordinator = whirlpoolApiCoordinator.createNewIdentity();
     this.monitoringService = monitoringService;
+    this.ioExecutor =
+        Executors.newFixedThreadPool(
+            IO_THREADS,
+            new ThreadFactoryBuilder().setNameFormat("sorobanUpStatus-%d").setDaemon(true).build());
 
     this.status = new LinkedHashMap<>();
     this.status.put(true, Pair.of(0, 0));
@@ -125,31 +139,28 @@ public class SorobanUpStatusOrchestrator extends AbstractOrchestrator {
 
     // send one UpStatusMessage per soroban node
     Collection<String> sorobanUrls = computeSorobanUrls(onion);
-    List<Pair<String, Boolean>> sendResults =
-        sorobanUrls.parallelStream()
-            .map(
-                sorobanUrl -> { // use map to wait for each results
-                  try {
-                    asyncUtil.blockingAwait(
-                        whirlpoolApiCoordinator
-                            .getRpcSession()
-                            .withSorobanClient(
-                                sorobanClient ->
-                                    whirlpoolApiCoordinator.upStatusSend(sorobanClient, checkId),
-                                sorobanUrl));
-                    return Pair.of(sorobanUrl, true);
-                  } catch (Exception e) {
-                    if (log.isTraceEnabled()) {
-                      log.error(
-                          "upStatusSend() failed: "
-                              + e.getMessage()
-                              + ", sorobanUrl="
-                              + sorobanUrl);
-                    }
-                    return Pair.of(sorobanUrl, false);
-                  }
-                })
-            .collect(Collectors.toList());
+    Map<String, Boolean> sendResults =
+        runForEachNode(
+            sorobanUrls,
+            sorobanUrl -> { // wait for each results
+              try {
+                asyncUtil.blockingAwait(
+                    whirlpoolApiCoordinator
+                        .getRpcSession()
+                        .withSorobanClient(
+                            sorobanClient ->
+                                whirlpoolApiCoordinator.upStatusSend(sorobanClient, checkId),
+                            sorobanUrl));
+                return true;
+              } catch (Exception e) {
+                if (log.isTraceEnabled()) {
+                  log.error(
+                      "upStatusSend() failed: " + e.getMessage() + ", sorobanUrl=" + sorobanUrl);
+                }
+                return false;
+              }
+            },
+            false);
     // TODO use sendResults for skipping down nodes
 
     // wait for propagation delay
@@ -157,10 +168,8 @@ public class SorobanUpStatusOrchestrator extends AbstractOrchestrator {
 
     // fetch each node
     Map<String, Collection<SorobanItemTyped>> resultsByNode =
-        sorobanUrls.parallelStream()
-            .collect(
-                Collectors.toMap(
-                    sorobanUrl -> sorobanUrl, sorobanUrl -> fetchSorobanNode(sorobanUrl, checkId)));
+        runForEachNode(
+            sorobanUrls, sorobanUrl -> fetchSorobanNode(sorobanUrl, checkId), new LinkedList<>());
 
     // find max propagation
     int maxPropagations =
@@ -290,6 +299,33 @@ public class SorobanUpStatusOrchestrator extends AbstractOrchestrator {
     setLastRun();
   }
 
+  // run blocking requests concurrently on ioExecutor, with a global timeout
+  private <R> Map<String, R> runForEachNode(
+      Collection<String> sorobanUrls, Function<String, R> request, R timeoutResult) {
+    Map<String, Future<R>> futures = new LinkedHashMap<>();
+    for (String sorobanUrl : sorobanUrls) {
+      Callable<R> callable = () -> request.apply(sorobanUrl);
+      futures.put(sorobanUrl, ioExecutor.submit(callable));
+    }
+    long timeoutAt = System.currentTimeMillis() + IO_TIMEOUT;
+    Map<String, R> results = new LinkedHashMap<>();
+    for (Map.Entry<String, Future<R>> e : futures.entrySet()) {
+      String sorobanUrl = e.getKey();
+      Future<R> future = e.getValue();
+      R result;
+      try {
+        long remaining = Math.max(0, timeoutAt - System.currentTimeMillis());
+        result = future.get(remaining, TimeUnit.MILLISECONDS);
+      } catch (Exception ee) {
+        log.error("request timeout or failure: sorobanUrl=" + sorobanUrl + ": " + ee.getMessage());
+        future.cancel(true);
+        result = timeoutResult;
+      }
+      results.put(sorobanUrl, result);
+    }
+    return results;
+  }
+
   private Collection<SorobanItemTyped> fetchSorobanNode(String sorobanUrl, long checkId) {
     try {
       return asyncUtil.blockingGet(
@@ -20,6 +20,9 @@ public interface BanRepository extends CrudRepository<BanTO, Long> {
   Optional<BanTO> findFirstByIdentifierOrderByExpirationDesc(
       @Param("identifier") String identifier);
 
+  @Query("SELECT b from ban b WHERE (expiration IS NULL OR expiration >= :expirationMin)")
+  List<BanTO> findByExpirationAfterOrNull(@Param("expirationMin") Timestamp expirationMin);
+
   @Query("SELECT b from ban b WHERE (expiration IS NULL OR expiration >= :expirationMin)")
   Page<BanTO> findByExpirationAfterOrNull(
       @Param("expirationMin") Timestamp expirationMin, Pageable pageable);
@@ -2,17 +2,17 @@ package com.samourai.whirlpool.server.persistence.repositories;
 
 import com.samourai.whirlpool.server.beans.MixStatus;
 import com.samourai.whirlpool.server.persistence.to.MixTO;
+import java.util.List;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.PagingAndSortingRepository;
 import org.springframework.data.repository.query.Param;
 
 public interface MixRepository extends PagingAndSortingRepository<MixTO, Long> {
-  @Query("SELECT COUNT(m) from mix m WHERE mixStatus=:mixStatus")
-  Long countByMixStatus(@Param("mixStatus") MixStatus mixStatus);
+  boolean existsByMixId(String mixId);
 
-  @Query("SELECT SUM(nbMustMix*denomination) from mix WHERE mixStatus=:mixStatus")
-  Long sumMustMixByMixStatus(@Param("mixStatus") MixStatus mixStatus);
-
-  @Query("SELECT SUM(amountOut) from mix WHERE mixStatus=:mixStatus")
-  Long sumAmountOutByMixStatus(@Param("mixStatus") MixStatus mixStatus);
+  // poolId, day, count, sumMustMix, sumAmountOut
+  @Query(
+      "SELECT poolId, CAST(created AS date), COUNT(m), SUM(nbMustMix*denomination), SUM(amountOut)"
+          + " from mix m WHERE mixStatus=:mixStatus GROUP BY poolId, CAST(created AS date)")
+  List<Object[]> sumByPoolAndDayByMixStatus(@Param("mixStatus") MixStatus mixStatus);
 }
@@ -15,10 +15,14 @@ public class MixLogTO extends EntityTO {
   public MixLogTO() {}
 
   public void update(Mix mix, MixTO mixTO) {
+    update(mixTO, mix.getTx() != null ? mix.getTx().getHashAsString() : null);
+  }
+
+  public void update(MixTO mixTO, String txid) {
     this.mix = mixTO;
 
-    if (mix.getTx() != null) {
-      this.txid = mix.getTx().getHashAsString();
+    if (txid != null) {
+      this.txid = txid;
     }
   }
 
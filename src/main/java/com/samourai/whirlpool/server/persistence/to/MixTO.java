@@ -3,6 +3,7 @@ package com.samourai.whirlpool.server.persistence.to;
 import com.samourai.whirlpool.server.beans.FailReason;
 import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.beans.MixStatus;
+import com.samourai.whirlpool.server.beans.export.MixCsv;
 import com.samourai.whirlpool.server.persistence.to.shared.EntityCreatedUpdatedTO;
 import javax.persistence.*;
 
@@ -59,6 +60,29 @@ public class MixTO extends EntityCreatedUpdatedTO {
     this.mixLog.update(mix, this);
   }
 
+  // restore from mix journal
+  public void setFrom(MixCsv mixCsv) {
+    this.poolId = mixCsv.getPoolId();
+    this.mixId = mixCsv.getMixId();
+    this.denomination = mixCsv.getDenomination();
+    this.anonymitySet = mixCsv.getAnonymitySet();
+    this.nbMustMix = mixCsv.getNbMustMix();
+    this.nbLiquidities = mixCsv.getNbLiquidities();
+    this.amountIn = mixCsv.getAmountIn();
+    this.amountOut = mixCsv.getAmountOut();
+    this.feesAmount = mixCsv.getFeesAmount();
+    this.feesPrice = mixCsv.getFeesPrice();
+    this.mixDuration = mixCsv.getMixDuration();
+    this.mixStatus = mixCsv.getMixStatus();
+    this.failReason = mixCsv.getFailReason();
+    this.failInfo = mixCsv.getFailInfo();
+
+    if (this.mixLog == null) {
+      this.mixLog = new MixLogTO();
+    }
+    this.mixLog.update(this, mixCsv.getTxid());
+  }
+
   public String getPoolId() {
     return poolId;
   }
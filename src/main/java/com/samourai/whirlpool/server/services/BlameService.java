@@ -5,15 +5,28 @@ import com.samourai.whirlpool.protocol.soroban.payload.beans.BlameReason;
 import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.beans.export.ActivityCsv;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.persistence.to.BlameTO;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.Deque;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -23,17 +36,28 @@ public class BlameService {
   private BanService banService;
   private ExportService exportService;
   private MetricService metricService;
+  private WhirlpoolServerConfig serverConfig;
+
+  private static final long SYNC_OVERLAP_MS = 60000;
+
+  // blames within ban period, by identifier
+  private Map<String, Deque<BlameTO>> recentBlames;
+  private Timestamp lastSync;
 
   @Autowired
   public BlameService(
       DbService dbService,
       BanService banService,
       ExportService exportService,
-      MetricService metricService) {
+      MetricService metricService,
+      WhirlpoolServerConfig serverConfig) {
     this.dbService = dbService;
     this.banService = banService;
     this.exportService = exportService;
     this.metricService = metricService;
+    this.serverConfig = serverConfig;
+    this.recentBlames = new ConcurrentHashMap<>();
+    this.lastSync = null;
   }
 
   public void blame(RegisteredInput registeredInput, BlameReason reason, Mix mix) {
@@ -45,10 +69,11 @@ public class BlameService {
     try {
       // blame
       String identifier = Utils.computeBlameIdentitifer(registeredInput);
-      dbService.saveBlame(identifier, reason, mix.getMixId(), registeredInput.getTor());
+      BlameTO blameTO =
+          dbService.saveBlame(identifier, reason, mix.getMixId(), registeredInput.getTor());
 
       // notify banService
-      List<BlameTO> blames = dbService.findBlames(identifier);
+      List<BlameTO> blames = addRecentBlame(identifier, blameTO);
       banService.onBlame(registeredInput, identifier, blames);
 
       Map<String, String> detailsParam = new LinkedHashMap<>();
@@ -73,4 +98,111 @@ public class BlameService {
       log.error("saveBlame failed", e);
     }
   }
+
+  private List<BlameTO> addRecentBlame(String identifier, BlameTO blameTO) {
+    Timestamp createdAfter = computeBlamePeriodStart();
+    while (true) {
+      boolean cached = recentBlames.containsKey(identifier);
+      // first blame since startup => load blame period from db (including this one), without
+      // holding the map lock
+      Collection<BlameTO> blames =
+          cached
+              ? Arrays.asList(blameTO)
+              : dbService.findBlamesCreatedAfter(identifier, createdAfter);
+      List<BlameTO> result = mergeRecentBlames(identifier, blames, createdAfter, cached);
+      if (result != null) {
+        return result;
+      }
+      // evicted meanwhile => reload from db
+    }
+  }
+
+  // returns null when mustBeCached but identifier was evicted meanwhile
+  private List<BlameTO> mergeRecentBlames(
+      String identifier, Collection<BlameTO> blames, Timestamp createdAfter, boolean mustBeCached) {
+    List<BlameTO> result = new ArrayList<>();
+    Deque<BlameTO> merged =
+        recentBlames.compute(
+            identifier,
+            (k, deque) -> {
+              if (deque == null) {
+                if (mustBeCached) {
+                  return null;
+                }
+                deque = new ArrayDeque<>();
+              }
+              mergeBlames(deque, blames);
+              pruneBlames(deque, createdAfter);
+              result.addAll(deque);
+              return deque.isEmpty() ? null : deque;
+            });
+    if (merged == null && mustBeCached) {
+      return null;
+    }
+    return result;
+  }
+
+  private void mergeBlames(Deque<BlameTO> deque, Collection<BlameTO> blames) {
+    Set<Long> ids = deque.stream().map(BlameTO::getId).collect(Collectors.toSet());
+    List<BlameTO> missing =
+        blames.stream().filter(b -> !ids.contains(b.getId())).collect(Collectors.toList());
+    if (missing.isEmpty()) {
+      return;
+    }
+    List<BlameTO> sorted = new ArrayList<>(deque);
+    sorted.addAll(missing);
+    sorted.sort(Comparator.comparing(BlameTO::getCreated));
+    deque.clear();
+    deque.addAll(sorted);
+  }
+
+  private void pruneBlames(Deque<BlameTO> deque, Timestamp createdAfter) {
+    while (!deque.isEmpty() && !deque.peekFirst().getCreated().after(createdAfter)) {
+      deque.pollFirst();
+    }
+  }
+
+  private Timestamp computeBlamePeriodStart() {
+    long blamePeriodMs = serverConfig.getBan().getPeriod() * 1000;
+    return new Timestamp(System.currentTimeMillis() - blamePeriodMs);
+  }
+
+  // catch up with blames from other nodes, and forget identifiers without blame in period.
+  // Runs every server.ban.blame-sync-delay seconds (1 minute by default)
+  @Scheduled(fixedDelayString = "#{${server.ban.blame-sync-delay:60} * 1000}")
+  public void syncRecentBlames() {
+    try {
+      Timestamp createdAfter = computeBlamePeriodStart();
+      Timestamp now = new Timestamp(System.currentTimeMillis());
+      if (recentBlames.isEmpty()) {
+        // nothing cached => no need to query db
+        lastSync = now;
+        return;
+      }
+      Timestamp syncFrom =
+          lastSync != null && lastSync.after(createdAfter)
+              ? new Timestamp(lastSync.getTime() - SYNC_OVERLAP_MS)
+              : createdAfter;
+      Map<String, List<BlameTO>> blamesByIdentifier =
+          dbService.findBlamesCreatedAfter(syncFrom).stream()
+              .collect(Collectors.groupingBy(BlameTO::getIdentifier));
+      for (String identifier : recentBlames.keySet()) {
+        List<BlameTO> blames = blamesByIdentifier.getOrDefault(identifier, Collections.emptyList());
+        mergeRecentBlames(identifier, blames, createdAfter, true);
+      }
+      lastSync = now;
+    } catch (Exception e) {
+      log.error("syncRecentBlames failed", e);
+    }
+  }
+
+  public List<BlameTO> __getRecentBlames(String identifier) {
+    Deque<BlameTO> deque = recentBlames.get(identifier);
+    return deque != null ? new ArrayList<>(deque) : new ArrayList<>();
+  }
+
+  public void __reset() {
+    recentBlames.clear();
+    lastSync = null;
+  }
 }
@@ -11,6 +11,10 @@ import com.samourai.whirlpool.server.services.rpc.RpcClientService;
 import com.samourai.whirlpool.server.services.rpc.RpcRawTransactionResponse;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.bitcoinj.core.NetworkParameters;
 import org.bitcoinj.core.TransactionOutput;
@@ -22,22 +26,34 @@ import org.springframework.stereotype.Service;
 @Service
 public class BlockchainDataService {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int RPC_TX_CACHE_MAX_BYTES = 16 * 1024 * 1024;
+
   private CryptoService cryptoService;
   private RpcClientService rpcClientService;
   private Bech32UtilGeneric bech32Util;
   private WhirlpoolServerConfig serverConfig;
-  private Integer blockHeight;
+  private MetricService metricService;
+  private volatile Integer blockHeight;
+
+  // parsed confirmed txs by txid, in access order (LRU)
+  private Map<String, CachedRpcTransaction> rpcTxCache;
+  private long rpcTxCacheBytes;
 
   public BlockchainDataService(
       CryptoService cryptoService,
       RpcClientService rpcClientService,
       Bech32UtilGeneric bech32Util,
-      WhirlpoolServerConfig serverConfig) {
+      WhirlpoolServerConfig serverConfig,
+      MetricService metricService) {
     this.cryptoService = cryptoService;
     this.rpcClientService = rpcClientService;
     this.bech32Util = bech32Util;
     this.serverConfig = serverConfig;
+    this.metricService = metricService;
     this.blockHeight = null;
+    this.rpcTxCache = new LinkedHashMap<>(16, 0.75f, true);
+    this.rpcTxCacheBytes = 0;
+    metricService.init(this);
 
     // fetch blockHeight on startup
     AsyncUtil.getInstance().runIOAsyncCompletable(() -> scheduleBlockHeight());
@@ -89,6 +105,83 @@ public class BlockchainDataService {
   }
 
   public Optional<RpcTransaction> getRpcTransaction(String txid) {
+    Integer currentBlockHeight = blockHeight;
+
+    // parsed tx from cache
+    RpcTransaction cachedTx = getRpcTransactionCached(txid, currentBlockHeight);
+    if (cachedTx != null) {
+      metricService.onRpcTxCache(true);
+      return Optional.of(cachedTx);
+    }
+    metricService.onRpcTxCache(false);
+
+    Optional<RpcTransaction> rpcTxOpt = fetchRpcTransaction(txid);
+    if (rpcTxOpt.isPresent() && currentBlockHeight != null) {
+      putRpcTransactionCached(txid, rpcTxOpt.get(), currentBlockHeight);
+    }
+    return rpcTxOpt;
+  }
+
+  private synchronized RpcTransaction getRpcTransactionCached(
+      String txid, Integer currentBlockHeight) {
+    CachedRpcTransaction cached = rpcTxCache.get(txid);
+    if (cached == null) {
+      return null;
+    }
+    if (currentBlockHeight == null || currentBlockHeight < cached.blockHeight) {
+      // blockHeight unknown or reorg => refetch
+      removeRpcTransactionCached(txid);
+      return null;
+    }
+    // recompute confirmations from current blockHeight
+    int confirmations =
+        cached.rpcTransaction.getConfirmations() + (currentBlockHeight - cached.blockHeight);
+    return new RpcTransaction(cached.rpcTransaction, confirmations);
+  }
+
+  private synchronized void putRpcTransactionCached(
+      String txid, RpcTransaction rpcTransaction, int currentBlockHeight) {
+    if (rpcTransaction.getConfirmations() <= 0) {
+      // unconfirmed tx can't be recomputed from blockHeight
+      return;
+    }
+    int size = rpcTransaction.getTx().getMessageSize();
+    if (size > RPC_TX_CACHE_MAX_BYTES) {
+      return;
+    }
+    removeRpcTransactionCached(txid);
+    rpcTxCache.put(txid, new CachedRpcTransaction(rpcTransaction, currentBlockHeight, size));
+    rpcTxCacheBytes += size;
+
+    // evict least recently used
+    Iterator<CachedRpcTransaction> it = rpcTxCache.values().iterator();
+    while (rpcTxCacheBytes > RPC_TX_CACHE_MAX_BYTES && it.hasNext()) {
+      rpcTxCacheBytes -= it.next().size;
+      it.remove();
+    }
+  }
+
+  private void removeRpcTransactionCached(String txid) {
+    CachedRpcTransaction removed = rpcTxCache.remove(txid);
+    if (removed != null) {
+      rpcTxCacheBytes -= removed.size;
+    }
+  }
+
+  public synchronized int getRpcTxCacheSize() {
+    return rpcTxCache.size();
+  }
+
+  public synchronized long getRpcTxCacheBytes() {
+    return rpcTxCacheBytes;
+  }
+
+  public synchronized void __reset() {
+    rpcTxCache.clear();
+    rpcTxCacheBytes = 0;
+  }
+
+  private Optional<RpcTransaction> fetchRpcTransaction(String txid) {
     if (log.isTraceEnabled()) {
       log.trace("RPC query: getRawTransaction " + txid);
     }
@@ -132,10 +225,19 @@ public class BlockchainDataService {
     return rpcClientService.isTxOutUnspent(txid, utxoIndex);
   }
 
+  // check many outPoints with a single RPC batch
+  public List<Boolean> isTxOutUnspent(List<TxOutPoint> outPoints) throws Exception {
+    return rpcClientService.isTxOutUnspent(outPoints);
+  }
+
   public Integer getBlockHeight() {
     return blockHeight;
   }
 
+  public void __setBlockHeight(Integer blockHeight) {
+    this.blockHeight = blockHeight;
+  }
+
   public ChainSupplier computeChainSupplier() {
     ChainSupplier chainSupplier =
         () -> {
@@ -145,4 +247,16 @@ public class BlockchainDataService {
         };
     return chainSupplier;
   }
+
+  private static class CachedRpcTransaction {
+    private final RpcTransaction rpcTransaction;
+    private final int blockHeight; // blockHeight when fetched
+    private final int size;
+
+    CachedRpcTransaction(RpcTransaction rpcTransaction, int blockHeight, int size) {
+      this.rpcTransaction = rpcTransaction;
+      this.blockHeight = blockHeight;
+      this.size = size;
+    }
+  }
 }
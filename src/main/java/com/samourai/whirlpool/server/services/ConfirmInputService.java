@@ -12,6 +12,7 @@ import com.samourai.whirlpool.server.exceptions.MixException;
 import com.samourai.whirlpool.server.exceptions.QueueInputException;
 import java.lang.invoke.MethodHandles;
 import java.util.Optional;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -41,13 +42,22 @@ public class ConfirmInputService {
     this.serverConfig = serverConfig;
   }
 
-  public synchronized Optional<byte[]> confirmInput_webSocket(
+  public Optional<byte[]> confirmInput_webSocket(
       String mixId, byte[] blindedBordereau, String userHash, String username)
       throws NotifiableException {
+    Mix mix;
+    try {
+      mix = mixService.getMix(mixId);
+    } catch (MixException e) {
+      // ConfirmInput too late, mix already started => input was already silently requeued
+      return Optional.empty();
+    }
+    RegisteredInput registeredInput;
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
     try {
-      Mix mix = mixService.getMix(mixId);
       // old non-soroban clients
-      RegisteredInput registeredInput =
+      registeredInput =
           mix.removeConfirmingInputByUsername(username)
               .orElseThrow(
                   () ->
@@ -56,7 +66,7 @@ public class ConfirmInputService {
                           "Confirming input not found",
                           "username=" + username));
       try {
-        return Optional.of(confirmInput(mix, registeredInput, blindedBordereau, userHash));
+        reserveSlot(mix, registeredInput, blindedBordereau, userHash);
       } catch (QueueInputException e) {
         // confirmInput rejected => requeue classic input which stays connected to websocket
         if (log.isDebugEnabled()) {
@@ -85,10 +95,32 @@ public class ConfirmInputService {
     } catch (Exception e) {
       // Soroban network error?
       throw NotifiableException.computeNotifiableException(e);
+    } finally {
+      mixLock.unlock();
+    }
+
+    try {
+      return Optional.of(signBordereau(mix, registeredInput, blindedBordereau));
+    } catch (Exception e) {
+      throw NotifiableException.computeNotifiableException(e);
     }
   }
 
-  public synchronized byte[] confirmInput(
+  public byte[] confirmInput(
+      Mix mix, RegisteredInput registeredInput, byte[] blindedBordereau, String userHash)
+      throws Exception {
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      reserveSlot(mix, registeredInput, blindedBordereau, userHash);
+    } finally {
+      mixLock.unlock();
+    }
+    return signBordereau(mix, registeredInput, blindedBordereau);
+  }
+
+  // validate and add to mix inputs, under mix lock
+  private void reserveSlot(
       Mix mix, RegisteredInput registeredInput, byte[] blindedBordereau, String userHash)
       throws Exception {
     if (log.isDebugEnabled()) {
@@ -98,30 +130,66 @@ public class ConfirmInputService {
     // failMode
     serverConfig.checkFailMode(FailMode.CONFIRM_INPUT);
 
+    // reject malformed bordereau before reserving a slot
+    if (!mix.getCryptoContext().isValidBlindedOutput(blindedBordereau)) {
+      throw new IllegalInputException(
+          WhirlpoolErrorCode.INVALID_ARGUMENT, "Invalid blinded bordereau", registeredInput);
+    }
+
     // set lastUserHash
     registeredInput.setLastUserHash(userHash);
 
     // last input validations (after setting lastUserHash)
     mixService.validateOnConfirmInput(mix, registeredInput);
 
-    // sign bordereau to reply
-    byte[] signedBordereau = cryptoService.signBlindedOutput(blindedBordereau, mix.getKeyPair());
-
-    // add to mix inputs
-    mix.registerInput(registeredInput, signedBordereau);
+    // add to mix inputs, bordereau is signed after releasing lock
+    mix.registerInput(registeredInput, null);
     mixService.logMixStatus(mix);
 
-    // log activity
-    ActivityCsv activityCsv =
-        new ActivityCsv("CONFIRM_INPUT", mix.getPool().getPoolId(), registeredInput, null, null);
-    exportService.exportActivity(activityCsv);
-
     // manage surges when enough mustMix confirmed
     if (!registeredInput.isLiquidity() && mix.hasMinMustMixAndFeeReached()) {
       // enough mustMix confirmed, update mix surge limit
       mix.setSurge();
       // surges will be invited soon by mixLimitsService
     }
+  }
+
+  // signed bordereau of an already confirmed input (duplicate request)
+  public byte[] getSignedBordereau(RegisteredInput confirmedInput) throws IllegalInputException {
+    byte[] signedBordereau = confirmedInput.getSignedBordereau();
+    if (signedBordereau == null) {
+      // duplicate request while first one is still signing
+      throw new IllegalInputException(
+          WhirlpoolErrorCode.INPUT_ALREADY_REGISTERED,
+          "Input confirmation in progress",
+          confirmedInput);
+    }
+    return signedBordereau;
+  }
+
+  // sign bordereau to reply, without mix lock (RSA private key operation)
+  private byte[] signBordereau(Mix mix, RegisteredInput registeredInput, byte[] blindedBordereau)
+      throws Exception {
+    byte[] signedBordereau;
+    try {
+      signedBordereau = cryptoService.signBlindedOutput(blindedBordereau, mix.getCryptoContext());
+    } catch (Exception e) {
+      // release slot
+      ReentrantLock mixLock = mix.getPool().getMixLock();
+      mixLock.lock();
+      try {
+        mix.unregisterInput(registeredInput);
+      } finally {
+        mixLock.unlock();
+      }
+      throw e;
+    }
+    registeredInput.setSignedBordereau(signedBordereau);
+
+    // log activity
+    ActivityCsv activityCsv =
+        new ActivityCsv("CONFIRM_INPUT", mix.getPool().getPoolId(), registeredInput, null, null);
+    exportService.exportActivity(activityCsv);
     return signedBordereau;
   }
 }
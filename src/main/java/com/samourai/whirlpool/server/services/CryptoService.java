@@ -1,5 +1,6 @@
 package com.samourai.whirlpool.server.services;
 
+import com.samourai.whirlpool.server.beans.MixCryptoContext;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import java.lang.invoke.MethodHandles;
 import java.math.BigInteger;
@@ -7,15 +8,14 @@ import java.security.KeyFactory;
 import java.security.PublicKey;
 import java.security.SecureRandom;
 import java.security.spec.RSAPublicKeySpec;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
 import org.bitcoinj.core.Context;
 import org.bitcoinj.core.NetworkParameters;
 import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
-import org.bouncycastle.crypto.digests.SHA256Digest;
-import org.bouncycastle.crypto.engines.RSAEngine;
 import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
 import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
 import org.bouncycastle.crypto.params.RSAKeyParameters;
-import org.bouncycastle.crypto.signers.PSSSigner;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -25,16 +25,68 @@ public class CryptoService {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
 
   private static final SecureRandom secureRandom = new SecureRandom();
+  private static final int KEY_PAIR_BUFFER_SIZE = 10; // pre-generated keyPairs for next mixs
+
   private NetworkParameters networkParameters;
+  private boolean rsaBlinding;
+  private MetricService metricService;
+  private BlockingQueue<AsymmetricCipherKeyPair> keyPairBuffer;
+  private Thread keyPairRefillThread;
+  private volatile boolean running;
 
-  public CryptoService(WhirlpoolServerConfig serverConfig) {
+  public CryptoService(WhirlpoolServerConfig serverConfig, MetricService metricService) {
     this.networkParameters = serverConfig.getNetworkParameters();
+    this.rsaBlinding = serverConfig.isRsaBlinding();
+    this.metricService = metricService;
 
     // initialize bitcoinj context
     new Context(networkParameters);
+
+    // pre-generate keyPairs in background
+    this.keyPairBuffer = new ArrayBlockingQueue<>(KEY_PAIR_BUFFER_SIZE);
+    this.running = true;
+    this.keyPairRefillThread = new Thread(() -> runKeyPairRefill(), "keyPairRefill");
+    this.keyPairRefillThread.setDaemon(true);
+    this.keyPairRefillThread.start();
+    metricService.init(this);
+  }
+
+  private void runKeyPairRefill() {
+    while (running) {
+      try {
+        long since = System.currentTimeMillis();
+        AsymmetricCipherKeyPair keyPair = computeKeyPair();
+        metricService.onKeyPairRefill(System.currentTimeMillis() - since);
+        keyPairBuffer.put(keyPair); // wait while buffer is full
+      } catch (InterruptedException e) {
+        // normal on stop()
+      } catch (Exception e) {
+        log.error("keyPairRefill failed", e);
+      }
+    }
+  }
+
+  public void stop() {
+    running = false;
+    keyPairRefillThread.interrupt();
   }
 
   public AsymmetricCipherKeyPair generateKeyPair() {
+    AsymmetricCipherKeyPair keyPair = keyPairBuffer.poll();
+    if (keyPair == null) {
+      // buffer empty => generate inline
+      log.warn("keyPairBuffer empty, generating keyPair inline");
+      metricService.onKeyPairInline();
+      keyPair = computeKeyPair();
+    }
+    return keyPair;
+  }
+
+  public int getKeyPairBufferSize() {
+    return keyPairBuffer.size();
+  }
+
+  private AsymmetricCipherKeyPair computeKeyPair() {
     // Generate a 2048-bit RSA key pair.
     RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
     /*new RsaKeyGenerationParameters(
@@ -56,21 +108,28 @@ public class CryptoService {
     return kf.generatePublic(rsaPublicKeySpec);
   }
 
+  public MixCryptoContext computeCryptoContext(AsymmetricCipherKeyPair keyPair) {
+    return new MixCryptoContext(keyPair, rsaBlinding);
+  }
+
+  public byte[] signBlindedOutput(byte[] blindedOutput, MixCryptoContext cryptoContext) {
+    return cryptoContext.signBlindedOutput(blindedOutput);
+  }
+
+  public boolean verifyUnblindedSignedBordereau(
+      byte[] revealedBordereau, byte[] unblindedSignedBordereau, MixCryptoContext cryptoContext) {
+    return cryptoContext.verifyUnblindedSignedBordereau(
+        revealedBordereau, unblindedSignedBordereau);
+  }
+
   public byte[] signBlindedOutput(byte[] blindedOutput, AsymmetricCipherKeyPair keyPair) {
-    // sign blinded output
-    RSAEngine engine = new RSAEngine();
-    // using 'true' always generates 256 bytes signature (otherwise it's sometimes 255 bytes)
-    engine.init(true, keyPair.getPrivate());
-    return engine.processBlock(blindedOutput, 0, blindedOutput.length);
+    return signBlindedOutput(blindedOutput, computeCryptoContext(keyPair));
   }
 
   public boolean verifyUnblindedSignedBordereau(
       byte[] revealedBordereau, byte[] unblindedSignedBordereau, AsymmetricCipherKeyPair keyPair) {
-    PSSSigner signer = new PSSSigner(new RSAEngine(), new SHA256Digest(), 32);
-    signer.init(false, keyPair.getPublic());
-
-    signer.update(revealedBordereau, 0, revealedBordereau.length);
-    return signer.verifySignature(unblindedSignedBordereau);
+    return verifyUnblindedSignedBordereau(
+        revealedBordereau, unblindedSignedBordereau, computeCryptoContext(keyPair));
   }
 
   public NetworkParameters getNetworkParameters() {
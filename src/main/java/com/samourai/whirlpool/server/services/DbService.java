@@ -1,19 +1,25 @@
 package com.samourai.whirlpool.server.services;
 
 import com.samourai.whirlpool.protocol.soroban.payload.beans.BlameReason;
+import com.samourai.whirlpool.server.beans.BanIndex;
 import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.beans.MixStats;
+import com.samourai.whirlpool.server.beans.MixStatsIndex;
 import com.samourai.whirlpool.server.beans.MixStatus;
 import com.samourai.whirlpool.server.persistence.repositories.*;
 import com.samourai.whirlpool.server.persistence.to.*;
 import java.lang.invoke.MethodHandles;
+import java.sql.Date;
 import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -25,9 +31,10 @@ public class DbService {
   private Tx0WhitelistRepository tx0WhitelistRepository;
   private MixOutputRepository mixOutputRepository;
   private MixTxidRepository mixTxidRepository;
-  private MixStats mixStats; // cached value
+  private MixStatsIndex mixStatsIndex; // successful mixs totals, loaded once then incremented
   private BlameRepository blameRepository;
   private BanRepository banRepository;
+  private BanIndex banIndex; // active bans, synchronized with db
 
   public DbService(
       MixRepository mixRepository,
@@ -42,24 +49,62 @@ public class DbService {
     this.mixTxidRepository = mixTxidRepository;
     this.blameRepository = blameRepository;
     this.banRepository = banRepository;
+    this.banIndex = new BanIndex();
+    this.mixStatsIndex = new MixStatsIndex();
   }
 
   // mix
 
   public void saveMix(Mix mix) {
-    MixTO mixTO = mix.computeMixTO();
-    mixRepository.save(mixTO);
-    mixStats = null; // clear cache
+    saveMix(mix.computeMixTO());
+  }
+
+  public void saveMix(MixTO mixTO) {
+    synchronized (mixStatsIndex) {
+      mixRepository.save(mixTO);
+      if (mixStatsIndex.isLoaded() && mixTO.getMixStatus() == MixStatus.SUCCESS) {
+        LocalDate day =
+            mixTO.getCreated() != null
+                ? mixTO.getCreated().toLocalDateTime().toLocalDate()
+                : LocalDate.now();
+        MixStats mixStats =
+            new MixStats(1, mixTO.getNbMustMix() * mixTO.getDenomination(), mixTO.getAmountOut());
+        mixStatsIndex.add(mixTO.getPoolId(), day, mixStats);
+      }
+    }
   }
 
   public MixStats getMixStats() {
-    if (mixStats == null) {
-      long nbMixs = zeroIfNull(mixRepository.countByMixStatus(MixStatus.SUCCESS));
-      long sumMustMix = zeroIfNull(mixRepository.sumMustMixByMixStatus(MixStatus.SUCCESS));
-      long sumAmountOut = zeroIfNull(mixRepository.sumAmountOutByMixStatus(MixStatus.SUCCESS));
-      mixStats = new MixStats(nbMixs, sumMustMix, sumAmountOut);
+    return getMixStatsIndex().getTotal();
+  }
+
+  public MixStatsIndex getMixStatsIndex() {
+    if (!mixStatsIndex.isLoaded()) {
+      loadMixStatsIndex();
+    }
+    return mixStatsIndex;
+  }
+
+  private void loadMixStatsIndex() {
+    synchronized (mixStatsIndex) {
+      if (mixStatsIndex.isLoaded()) {
+        return;
+      }
+      // aggregate history once, then increment on each saveMix
+      mixStatsIndex.clear();
+      for (Object[] row : mixRepository.sumByPoolAndDayByMixStatus(MixStatus.SUCCESS)) {
+        String poolId = (String) row[0];
+        LocalDate day = ((Date) row[1]).toLocalDate();
+        MixStats mixStats =
+            new MixStats(
+                zeroIfNull((Long) row[2]), zeroIfNull((Long) row[3]), zeroIfNull((Long) row[4]));
+        mixStatsIndex.add(poolId, day, mixStats);
+      }
+      mixStatsIndex.setLoaded();
+      if (log.isDebugEnabled()) {
+        log.debug("mixStatsIndex loaded: " + mixStatsIndex.getTotal().getNbMixs() + " mixs");
+      }
     }
-    return mixStats;
   }
 
   private long zeroIfNull(Long value) {
@@ -100,6 +145,10 @@ public class DbService {
     return mixTxidRepository.findByTxidAndDenomination(txid, denomination).isPresent();
   }
 
+  public boolean hasMix(String mixId) {
+    return mixRepository.existsByMixId(mixId);
+  }
+
   public Page<MixTO> findMixs(Pageable pageable) {
     return mixRepository.findAll(pageable);
   }
@@ -116,6 +165,15 @@ public class DbService {
     return blameRepository.findBlamesByIdentifierOrderByCreatedAsc(identifier);
   }
 
+  public List<BlameTO> findBlamesCreatedAfter(String identifier, Timestamp createdAfter) {
+    return blameRepository.findBlamesByIdentifierAndCreatedAfterOrderByCreatedAsc(
+        identifier, createdAfter);
+  }
+
+  public List<BlameTO> findBlamesCreatedAfter(Timestamp createdAfter) {
+    return blameRepository.findBlamesByCreatedAfterOrderByCreatedAsc(createdAfter);
+  }
+
   // ban
 
   public BanTO saveBan(
@@ -124,7 +182,9 @@ public class DbService {
     log.warn("+ban: " + banTO);
     banRepository.save(banTO);
     banTO.__setCreated(created); // force exact created time
-    return banRepository.save(banTO);
+    banTO = banRepository.save(banTO);
+    banIndex.add(banTO);
+    return banTO;
   }
 
   public Optional<BanTO> findBanByIdentifierLast(String identifier) {
@@ -133,13 +193,42 @@ public class DbService {
 
   public List<BanTO> findBanByIdentifierAndExpirationAfterOrNull(
       String identifier, Timestamp expirationMin) {
-    return banRepository.findByIdentifierAndExpirationAfterOrNull(identifier, expirationMin);
+    if (!banIndex.isLoaded()) {
+      // not loaded yet
+      return banRepository.findByIdentifierAndExpirationAfterOrNull(identifier, expirationMin);
+    }
+    return banIndex.find(identifier, expirationMin);
+  }
+
+  // reload active bans from db, to catch up with bans from other nodes
+  @Scheduled(initialDelay = 0, fixedDelay = 60000)
+  public void syncBanIndex() {
+    try {
+      // query without locking index, bans saved meanwhile are re-applied on load
+      banIndex.startSync();
+      Timestamp now = new Timestamp(System.currentTimeMillis());
+      List<BanTO> activeBans = banRepository.findByExpirationAfterOrNull(now);
+      banIndex.load(activeBans);
+      if (log.isDebugEnabled()) {
+        log.debug("banIndex: " + banIndex.getSize() + " active bans");
+      }
+    } catch (Exception e) {
+      log.error("syncBanIndex failed", e);
+    }
   }
 
   public Page<BanTO> findBanByExpirationAfterOrNull(Timestamp expirationMin, Pageable pageable) {
     return banRepository.findByExpirationAfterOrNull(expirationMin, pageable);
   }
 
+  public void __reloadMixStatsIndex() {
+    synchronized (mixStatsIndex) {
+      mixStatsIndex.clear();
+      mixStatsIndex.unsetLoaded();
+    }
+    loadMixStatsIndex();
+  }
+
   public void __reset() {
     // TODO for tests only!
     mixRepository.deleteAll();
@@ -148,5 +237,10 @@ public class DbService {
     mixTxidRepository.deleteAll();
     blameRepository.deleteAll();
     banRepository.deleteAll();
+    banIndex.load(new HashSet<>());
+    synchronized (mixStatsIndex) {
+      mixStatsIndex.clear();
+      mixStatsIndex.setLoaded();
+    }
   }
 }
@@ -1,67 +1,176 @@
 package com.samourai.whirlpool.server.services;
 
 import com.opencsv.CSVWriter;
-import com.opencsv.bean.ColumnPositionMappingStrategy;
-import com.opencsv.bean.StatefulBeanToCsv;
-import com.opencsv.bean.StatefulBeanToCsvBuilder;
+import com.samourai.whirlpool.server.beans.export.CsvRow;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.FileWriter;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
 import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class ExportHandler<T> {
+/**
+ * Appends rows to a CSV file from a dedicated writer thread. Rows are queued without blocking
+ * (dropped when queue is full), written and flushed by groups, with optional file rotation.
+ */
+public class ExportHandler<T extends CsvRow> {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int QUEUE_SIZE = 10000;
+  private static final int FLUSH_MAX_ROWS = 500;
+  private static final long FLUSH_DELAY_MS = 200;
+  private static final long POLL_TIMEOUT_MS = 1000;
+  private static final long STOP_TIMEOUT_MS = 10000;
 
+  private WhirlpoolServerConfig.ExportItemConfig exportItemConfig;
+  private String[] headers;
+  private File csvFile;
   private CSVWriter writer;
-  private StatefulBeanToCsv<T> csv;
+  private LocalDate fileDay;
 
-  public ExportHandler(
-      WhirlpoolServerConfig.ExportItemConfig exportItemConfig,
-      Class<T> exportType,
-      String[] headers)
+  private BlockingQueue<T> queue;
+  private AtomicLong nbPending; // queued or being written
+  private AtomicLong nbDropped;
+  private volatile boolean running;
+  private Thread writerThread;
+
+  public ExportHandler(WhirlpoolServerConfig.ExportItemConfig exportItemConfig, String[] headers)
       throws Exception {
+    this.exportItemConfig = exportItemConfig;
+    this.headers = headers;
+
     // verify directory exists
     String dirname = exportItemConfig.getDirectory();
     File exportDirectory = new File(dirname);
     if (!exportDirectory.isDirectory()) {
       throw new Exception("export directory doesn't exist: " + dirname);
     }
-
-    // create file if not exists
-    boolean justCreated = false;
     String filename = exportItemConfig.getFilename();
-    File csvFile = new File(exportDirectory, filename);
-    if (!csvFile.exists()) {
-      csvFile.createNewFile();
-      if (!csvFile.exists()) {
-        throw new Exception("export file doesn't exist: " + filename + " in " + dirname);
-      }
-      justCreated = true;
-    }
+    this.csvFile = new File(exportDirectory, filename);
+    openFile();
 
     // verify file is writable
     if (!csvFile.canWrite()) {
       throw new Exception("export file is not writable: " + filename + " in " + dirname);
     }
 
-    log.info("Ready to export: " + exportType.getName() + " => " + csvFile.getAbsolutePath());
+    log.info(
+        "Ready to export: "
+            + csvFile.getAbsolutePath()
+            + ", rotation="
+            + exportItemConfig.getRotation());
 
-    // map type to CSV
-    this.writer = new CSVWriter(new FileWriter(csvFile, true));
+    this.queue = new ArrayBlockingQueue<>(QUEUE_SIZE);
+    this.nbPending = new AtomicLong(0);
+    this.nbDropped = new AtomicLong(0);
+    this.running = true;
+    this.writerThread = new Thread(() -> runWriter(), "export-" + filename);
+    this.writerThread.setDaemon(true);
+    this.writerThread.start();
+  }
+
+  /** Queue a row for export. Never blocks. */
+  public void write(T bean) {
+    nbPending.incrementAndGet();
+    if (!queue.offer(bean)) {
+      nbPending.decrementAndGet();
+      nbDropped.incrementAndGet();
+    }
+  }
+
+  private void runWriter() {
+    List<T> batch = new ArrayList<>(FLUSH_MAX_ROWS);
+    while (running || !queue.isEmpty()) {
+      try {
+        T first = queue.poll(POLL_TIMEOUT_MS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+          continue;
+        }
+        // group rows until FLUSH_MAX_ROWS or FLUSH_DELAY_MS
+        batch.add(first);
+        long flushAt = System.currentTimeMillis() + FLUSH_DELAY_MS;
+        while (batch.size() < FLUSH_MAX_ROWS && running) {
+          if (queue.drainTo(batch, FLUSH_MAX_ROWS - batch.size()) > 0) {
+            continue;
+          }
+          long waitMs = flushAt - System.currentTimeMillis();
+          T next = waitMs > 0 ? queue.poll(waitMs, TimeUnit.MILLISECONDS) : null;
+          if (next == null) {
+            break;
+          }
+          batch.add(next);
+        }
+        writeBatch(batch);
+      } catch (InterruptedException e) {
+        // stopping
+      } catch (Exception e) {
+        log.error("unable to export " + batch.size() + " rows to " + csvFile.getName(), e);
+      } finally {
+        nbPending.addAndGet(-batch.size());
+        batch.clear();
+      }
+    }
+    closeFile();
+  }
 
-    ColumnPositionMappingStrategy mapStrategy = new ColumnPositionMappingStrategy();
-    mapStrategy.setType(exportType);
+  private void writeBatch(List<T> batch) throws Exception {
+    long dropped = nbDropped.getAndSet(0);
+    if (dropped > 0) {
+      log.warn("export queue full, " + dropped + " rows dropped for " + csvFile.getName());
+    }
 
-    this.csv =
-        new StatefulBeanToCsvBuilder<>(writer)
-            .withQuotechar(CSVWriter.NO_QUOTE_CHARACTER)
-            .withMappingStrategy(mapStrategy)
-            .withSeparator(',')
-            .withThrowExceptions(true)
-            .build();
+    if (writer == null) {
+      // reopen after a failed rotation
+      openFile();
+    }
+    if (exportItemConfig.getRotation() == WhirlpoolServerConfig.ExportRotation.DAILY
+        && !LocalDate.now().equals(fileDay)) {
+      rotate();
+    }
+    for (T bean : batch) {
+      writer.writeNext(bean.toCsvRow());
+    }
+    writer.flush();
+    if (exportItemConfig.getRotation() == WhirlpoolServerConfig.ExportRotation.SIZE
+        && csvFile.length() >= exportItemConfig.getRotationMaxSize()) {
+      rotate();
+    }
+  }
 
+  private void openFile() throws Exception {
+    boolean justCreated = !csvFile.exists();
+    if (justCreated) {
+      csvFile.createNewFile();
+      if (!csvFile.exists()) {
+        throw new Exception("export file doesn't exist: " + csvFile.getAbsolutePath());
+      }
+    }
+    this.fileDay =
+        Instant.ofEpochMilli(csvFile.lastModified()).atZone(ZoneId.systemDefault()).toLocalDate();
+    this.writer =
+        new CSVWriter(
+            new BufferedWriter(
+                new OutputStreamWriter(
+                    new FileOutputStream(csvFile, true), StandardCharsets.UTF_8)),
+            ',',
+            CSVWriter.NO_QUOTE_CHARACTER,
+            CSVWriter.DEFAULT_ESCAPE_CHARACTER,
+            CSVWriter.DEFAULT_LINE_END);
     if (justCreated) {
       // write headers
       writer.writeNext(headers);
@@ -69,8 +178,90 @@ public class ExportHandler<T> {
     }
   }
 
-  public void write(T bean) throws Exception {
-    csv.write(bean);
-    writer.flush();
+  private void closeFile() {
+    if (writer == null) {
+      return;
+    }
+    try {
+      writer.close();
+    } catch (Exception e) {
+      log.error("", e);
+    }
+    writer = null;
+  }
+
+  private void rotate() throws Exception {
+    closeFile();
+    try {
+      // rename closed segment
+      String prefix = csvFile.getName() + "." + fileDay;
+      File segment = new File(csvFile.getParentFile(), prefix);
+      for (int i = 1; segment.exists() || gzipFile(segment).exists(); i++) {
+        segment = new File(csvFile.getParentFile(), prefix + "-" + i);
+      }
+      if (!renameFile(csvFile, segment)) {
+        log.error("unable to rotate " + csvFile.getAbsolutePath() + " to " + segment.getName());
+      } else {
+        log.info("Export rotated: " + segment.getAbsolutePath());
+        if (exportItemConfig.isRotationGzip()) {
+          gzip(segment);
+        }
+      }
+    } catch (Exception e) {
+      log.error("unable to rotate " + csvFile.getAbsolutePath(), e);
+    } finally {
+      // new file, or keep appending to current file when rotation failed
+      openFile();
+    }
+  }
+
+  protected boolean renameFile(File file, File dest) {
+    return file.renameTo(dest);
+  }
+
+  private File gzipFile(File file) {
+    return new File(file.getParentFile(), file.getName() + ".gz");
+  }
+
+  private void gzip(File file) {
+    File gzFile = gzipFile(file);
+    try (InputStream in = new FileInputStream(file);
+        OutputStream out = new GZIPOutputStream(new FileOutputStream(gzFile))) {
+      byte[] buffer = new byte[8192];
+      int len;
+      while ((len = in.read(buffer)) > 0) {
+        out.write(buffer, 0, len);
+      }
+    } catch (Exception e) {
+      log.error("unable to gzip " + file.getAbsolutePath(), e);
+      gzFile.delete();
+      return;
+    }
+    file.delete();
+  }
+
+  /** Write queued rows and close file. */
+  public void stop() {
+    running = false;
+    try {
+      writerThread.join(STOP_TIMEOUT_MS);
+    } catch (InterruptedException e) {
+      log.error("", e);
+    }
+  }
+
+  public void __flush() throws Exception {
+    // wait for queued rows to be written
+    long timeout = System.currentTimeMillis() + STOP_TIMEOUT_MS;
+    while (nbPending.get() > 0) {
+      if (System.currentTimeMillis() > timeout) {
+        throw new Exception("export flush timeout");
+      }
+      Thread.sleep(10);
+    }
+  }
+
+  public File __getCsvFile() {
+    return csvFile;
   }
 }
@@ -1,10 +1,8 @@
 package com.samourai.whirlpool.server.services;
 
-import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.beans.export.ActivityCsv;
 import com.samourai.whirlpool.server.beans.export.MixCsv;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
-import com.samourai.whirlpool.server.persistence.to.MixTO;
 import java.lang.invoke.MethodHandles;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -24,22 +22,17 @@ public class ExportService {
     this.serverConfig = serverConfig;
 
     // init exports
-    exportMixs =
-        new ExportHandler<>(serverConfig.getExport().getMixs(), MixCsv.class, MixCsv.HEADERS);
+    exportMixs = new ExportHandler<>(serverConfig.getExport().getMixs(), MixCsv.HEADERS);
     exportActivity =
-        new ExportHandler<>(
-            serverConfig.getExport().getActivity(), ActivityCsv.class, ActivityCsv.HEADERS);
+        new ExportHandler<>(serverConfig.getExport().getActivity(), ActivityCsv.HEADERS);
   }
 
-  public MixCsv exportMix(Mix mix) {
-    MixTO mixTO = mix.__getMixTO().get();
-    MixCsv mixCSV = new MixCsv(mixTO);
+  public void exportMix(MixCsv mixCSV) {
     try {
       exportMixs.write(mixCSV);
     } catch (Exception e) {
       log.error("unable to export mix", e);
     }
-    return mixCSV;
   }
 
   public void exportActivity(ActivityCsv activityCsv) {
@@ -49,4 +42,22 @@ public class ExportService {
       log.error("unable to export activity", e);
     }
   }
+
+  public void stop() {
+    exportMixs.stop();
+    exportActivity.stop();
+  }
+
+  public void __flush() throws Exception {
+    exportMixs.__flush();
+    exportActivity.__flush();
+  }
+
+  public ExportHandler<MixCsv> __getExportMixs() {
+    return exportMixs;
+  }
+
+  public ExportHandler<ActivityCsv> __getExportActivity() {
+    return exportActivity;
+  }
 }
@@ -0,0 +1,97 @@
+package com.samourai.whirlpool.server.services;
+
+import com.samourai.wallet.xmanagerClient.XManagerClient;
+import com.samourai.whirlpool.server.beans.Partner;
+import com.samourai.whirlpool.server.orchestrators.FeeAddressOrchestrator;
+import com.samourai.xmanager.protocol.XManagerService;
+import com.samourai.xmanager.protocol.rest.AddressIndexResponse;
+import java.lang.invoke.MethodHandles;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+/**
+ * Next fee address for each XManagerService, prefetched in background so that TX0 requests never
+ * wait for xManager. Each address is handed out once, and the next index is only fetched after
+ * that: idle servers don't consume xManager indexes, and TX0s never share a fee address.
+ */
+@Service
+public class FeeAddressService {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private XManagerClient xManagerClient;
+  private PartnerService partnerService;
+  private Map<XManagerService, AddressIndexResponse> nextFeeAddresses; // not handed out yet
+  private FeeAddressOrchestrator feeAddressOrchestrator;
+  private boolean started;
+
+  @Autowired
+  public FeeAddressService(XManagerClient xManagerClient, PartnerService partnerService) {
+    this.xManagerClient = xManagerClient;
+    this.partnerService = partnerService;
+    this.nextFeeAddresses = new ConcurrentHashMap<>();
+    this.feeAddressOrchestrator = new FeeAddressOrchestrator(this);
+    this.started = false;
+  }
+
+  public synchronized void start() {
+    if (!started) {
+      feeAddressOrchestrator.start(true);
+      started = true;
+    }
+  }
+
+  public synchronized void stop() {
+    if (started) {
+      feeAddressOrchestrator.stop();
+      started = false;
+    }
+  }
+
+  public AddressIndexResponse getFeeAddress(XManagerService xManagerService) {
+    AddressIndexResponse addressIndexResponse = nextFeeAddresses.remove(xManagerService);
+    if (addressIndexResponse == null) {
+      // not prefetched yet, or consumed by a concurrent request
+      return fetchFeeAddress(xManagerService);
+    }
+    // handed out => prefetch next one
+    if (started) {
+      feeAddressOrchestrator.notifyOrchestrator();
+    }
+    return addressIndexResponse;
+  }
+
+  // fetch next address for each XManagerService, unless previous one was not handed out yet
+  public void prefetch() {
+    Set<XManagerService> xManagerServices = new LinkedHashSet<>();
+    xManagerServices.add(XManagerService.XM000);
+    for (Partner partner : partnerService.getPartners()) {
+      xManagerServices.add(partner.getXmService());
+    }
+    for (XManagerService xManagerService : xManagerServices) {
+      if (!nextFeeAddresses.containsKey(xManagerService)) {
+        nextFeeAddresses.put(xManagerService, fetchFeeAddress(xManagerService));
+      }
+    }
+  }
+
+  private AddressIndexResponse fetchFeeAddress(XManagerService xManagerService) {
+    AddressIndexResponse addressIndexResponse =
+        xManagerClient.getAddressIndexOrDefault(xManagerService);
+    if (log.isDebugEnabled()) {
+      log.debug(
+          "feeAddress["
+              + xManagerService
+              + "]: index="
+              + addressIndexResponse.index
+              + ", address="
+              + addressIndexResponse.address);
+    }
+    return addressIndexResponse;
+  }
+}
@@ -3,6 +3,7 @@ package com.samourai.whirlpool.server.services;
 import com.samourai.javaserver.exceptions.NotifiableException;
 import com.samourai.wallet.util.MessageSignUtilGeneric;
 import com.samourai.whirlpool.protocol.WhirlpoolErrorCode;
+import com.samourai.whirlpool.server.beans.CachedResult;
 import com.samourai.whirlpool.server.beans.Pool;
 import com.samourai.whirlpool.server.beans.PoolFee;
 import com.samourai.whirlpool.server.beans.Tx0Validation;
@@ -11,6 +12,7 @@ import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.services.fee.WhirlpoolFeeData;
+import com.samourai.whirlpool.server.utils.ExpiringCache;
 import java.lang.invoke.MethodHandles;
 import java.util.Collection;
 import java.util.stream.Collectors;
@@ -23,6 +25,11 @@ import org.springframework.stereotype.Service;
 @Service
 public class InputValidationService {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int TX0_VERDICT_CACHE_SIZE = 10000;
+  private static final long TX0_VERDICT_CACHE_TTL = 600000; // 10min
+  // rejections may be caused by RPC or xManager failures, retry them soon
+  private static final long TX0_VERDICT_NEGATIVE_CACHE_TTL = 10000; // 10s
+
   private Tx0ValidationService tx0ValidationService;
   private WhirlpoolServerConfig whirlpoolServerConfig;
   private CryptoService cryptoService;
@@ -30,6 +37,11 @@ public class InputValidationService {
   private BlockchainDataService blockchainDataService;
   private PoolService poolService;
 
+  // tx0 validation by (txid, poolId), null when not a tx0. Verdicts which may depend on RPC or
+  // xManager availability expire sooner.
+  private ExpiringCache<String, CachedResult<Tx0Validation, IllegalInputException>> tx0VerdictCache;
+  private int tx0VerdictScodesVersion;
+
   public InputValidationService(
       Tx0ValidationService tx0ValidationService,
       WhirlpoolServerConfig whirlpoolServerConfig,
@@ -43,6 +55,8 @@ public class InputValidationService {
     this.messageSignUtil = messageSignUtil;
     this.blockchainDataService = blockchainDataService;
     this.poolService = poolService;
+    this.tx0VerdictCache = new ExpiringCache<>(TX0_VERDICT_CACHE_SIZE, TX0_VERDICT_CACHE_TTL);
+    this.tx0VerdictScodesVersion = whirlpoolServerConfig.getSamouraiFees().getScodesVersion();
   }
 
   public void validateProvenance(
@@ -57,8 +71,7 @@ public class InputValidationService {
 
     // verify input comes from a valid tx0 or previous mix
     String inputInfo = "tx0=" + tx.getTx().getHashAsString() + ", liquidity=" + liquidity;
-    boolean isLiquidity =
-        checkInputProvenance(tx.getTx(), tx.getTxTime(), pool.getPoolFee(), hasMixTxid);
+    boolean isLiquidity = checkInputProvenanceCached(tx, pool, hasMixTxid);
     if (!isLiquidity && liquidity) {
       throw new IllegalInputException(
           WhirlpoolErrorCode.INPUT_REJECTED,
@@ -74,20 +87,25 @@ public class InputValidationService {
     return; // valid
   }
 
+  private boolean checkInputProvenanceCached(RpcTransaction tx, Pool pool, boolean hasMixTxid)
+      throws IllegalInputException {
+    Tx0Validation tx0Validation = getTx0Verdict(tx, pool);
+    return checkInputProvenance(tx.getTx(), tx0Validation, hasMixTxid);
+  }
+
   protected boolean checkInputProvenance(
       Transaction tx, long txTime, PoolFee poolFee, boolean hasMixTxid) throws NotifiableException {
-    // is it a tx0?
-    WhirlpoolFeeData feeData;
-    try {
-      feeData = tx0ValidationService.decodeFeeData(tx);
-    } catch (Exception e) {
-      // this is not a tx0 => liquidity coming from a previous whirlpool tx
-      if (log.isTraceEnabled()) {
-        log.trace("Validating input: txid=" + tx.getHashAsString() + ": feeData=null");
-      }
+    Tx0Validation tx0Validation = validateTx0(tx, txTime, poolFee);
+    return checkInputProvenance(tx, tx0Validation, hasMixTxid);
+  }
 
+  private boolean checkInputProvenance(
+      Transaction tx, Tx0Validation tx0ValidationOrNull, boolean hasMixTxid)
+      throws IllegalInputException {
+    if (tx0ValidationOrNull == null) {
+      // this is not a tx0 => liquidity coming from a previous whirlpool tx
       if (!hasMixTxid) { // not a whirlpool tx
-        log.error("Input rejected (not a premix or whirlpool input): " + e);
+        log.error("Input rejected (not a premix or whirlpool input): txid=" + tx.getHashAsString());
         String inputInfo = "txid=" + tx.getHashAsString();
         throw new IllegalInputException(
             WhirlpoolErrorCode.INPUT_REJECTED,
@@ -96,6 +114,61 @@ public class InputValidationService {
       }
       return true; // liquidity
     }
+    return false; // mustMix
+  }
+
+  // returns verdict for (txid, poolId) from cache, or computes it
+  private Tx0Validation getTx0Verdict(RpcTransaction tx, Pool pool) throws IllegalInputException {
+    checkScodesVersion();
+
+    String key = tx.getTx().getHashAsString() + ":" + pool.getPoolId();
+    CachedResult<Tx0Validation, IllegalInputException> verdict = tx0VerdictCache.get(key);
+    if (verdict == null) {
+      boolean deterministic;
+      try {
+        Tx0Validation tx0Validation = validateTx0(tx.getTx(), tx.getTxTime(), pool.getPoolFee());
+        verdict = new CachedResult<Tx0Validation, IllegalInputException>(tx0Validation);
+        // valid tx0, or not a tx0 at all (no OP_RETURN fee output)
+        deterministic =
+            tx0Validation != null || tx0ValidationService.findOpReturnValue(tx.getTx()) == null;
+      } catch (IllegalInputException e) {
+        verdict = new CachedResult<Tx0Validation, IllegalInputException>(e);
+        deterministic = false;
+      }
+      tx0VerdictCache.put(
+          key, verdict, deterministic ? TX0_VERDICT_CACHE_TTL : TX0_VERDICT_NEGATIVE_CACHE_TTL);
+    } else if (log.isTraceEnabled()) {
+      log.trace("Validating input: tx0 verdict from cache: " + key);
+    }
+    return verdict.getOrException();
+  }
+
+  private synchronized void checkScodesVersion() {
+    // invalidate verdicts on SCODE configuration change
+    int scodesVersion = whirlpoolServerConfig.getSamouraiFees().getScodesVersion();
+    if (scodesVersion != tx0VerdictScodesVersion) {
+      if (tx0VerdictCache.size() > 0) {
+        log.info("SCODE configuration changed => clearing tx0 verdicts");
+      }
+      tx0VerdictCache.clear();
+      tx0VerdictScodesVersion = scodesVersion;
+    }
+  }
+
+  // returns null when tx is not a tx0
+  private Tx0Validation validateTx0(Transaction tx, long txTime, PoolFee poolFee)
+      throws IllegalInputException {
+    // is it a tx0?
+    WhirlpoolFeeData feeData;
+    try {
+      feeData = tx0ValidationService.decodeFeeData(tx);
+    } catch (Exception e) {
+      // this is not a tx0
+      if (log.isTraceEnabled()) {
+        log.trace("Validating input: txid=" + tx.getHashAsString() + ": feeData=null (" + e + ")");
+      }
+      return null;
+    }
 
     // this is a tx0 => mustMix
     if (log.isTraceEnabled()) {
@@ -142,7 +215,7 @@ public class InputValidationService {
             inputInfo);
       }
     }
-    return false; // mustMix
+    return tx0Validation;
   }
 
   protected void validateTx0Cascading(Transaction tx) throws Exception {
@@ -182,10 +255,7 @@ public class InputValidationService {
   }
 
   protected boolean isValidTx0(RpcTransaction tx, Pool pool) throws Exception {
-    boolean hasMixTxid = false; // it's not a MIX tx
-    boolean isLiquidity =
-        checkInputProvenance(tx.getTx(), tx.getTxTime(), pool.getPoolFee(), hasMixTxid);
-    return !isLiquidity; // not a MIX
+    return getTx0Verdict(tx, pool) != null; // not a MIX
   }
 
   public ECKey validateSignature(TxOutPoint txOutPoint, String message, String signature)
@@ -234,4 +304,8 @@ public class InputValidationService {
     }
     return pubkey;
   }
+
+  public void __reset() {
+    tx0VerdictCache.clear();
+  }
 }
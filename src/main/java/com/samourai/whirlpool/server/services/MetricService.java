@@ -7,16 +7,22 @@ import com.samourai.whirlpool.server.beans.Pool;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.beans.export.MixCsv;
 import com.samourai.whirlpool.server.orchestrators.SorobanUpStatusOrchestrator;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
 import io.micrometer.core.instrument.Metrics;
 import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.Timer;
 import java.lang.invoke.MethodHandles;
-import java.time.Duration;
-import java.time.temporal.ChronoUnit;
 import java.util.Arrays;
 import java.util.Collection;
-import java.util.LinkedList;
-import java.util.List;
-import org.apache.commons.lang3.BooleanUtils;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.function.ToDoubleFunction;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.stereotype.Service;
@@ -57,7 +63,34 @@ public class MetricService {
 
   private static final String GAUGE_SOROBAN_NODE = "whirlpool_soroban_node";
 
-  public MetricService() {}
+  private static final String GAUGE_KEYPAIR_BUFFER = "whirlpool_keypair_buffer";
+  private static final String TIMER_KEYPAIR_REFILL_DURATION = "whirlpool_keypair_refill_duration";
+  private static final String COUNTER_KEYPAIR_INLINE_TOTAL = "whirlpool_keypair_inline_total";
+
+  private static final String GAUGE_EXECUTOR_QUEUE_SIZE = "whirlpool_executor_queue_size";
+  private static final String GAUGE_EXECUTOR_ACTIVE = "whirlpool_executor_active";
+  private static final String GAUGE_EXECUTOR_POOL_SIZE = "whirlpool_executor_pool_size";
+  private static final String COUNTER_EXECUTOR_REJECTED_TOTAL = "whirlpool_executor_rejected_total";
+
+  private static final String COUNTER_RPC_TX_CACHE_TOTAL = "whirlpool_rpc_tx_cache_total";
+  private static final String GAUGE_RPC_TX_CACHE_SIZE = "whirlpool_rpc_tx_cache_size";
+  private static final String GAUGE_RPC_TX_CACHE_BYTES = "whirlpool_rpc_tx_cache_bytes";
+
+  private Map<String, PoolMeters> poolMetersByPoolId;
+  private Map<String, Counter> executorRejectedByName;
+  private Timer timerKeyPairRefillDuration;
+  private Counter counterKeyPairInlineTotal;
+  private Counter counterRpcTxCacheHit;
+  private Counter counterRpcTxCacheMiss;
+
+  public MetricService() {
+    this.poolMetersByPoolId = new ConcurrentHashMap<>();
+    this.executorRejectedByName = new ConcurrentHashMap<>();
+    this.timerKeyPairRefillDuration = Metrics.timer(TIMER_KEYPAIR_REFILL_DURATION);
+    this.counterKeyPairInlineTotal = Metrics.counter(COUNTER_KEYPAIR_INLINE_TOTAL);
+    this.counterRpcTxCacheHit = Metrics.counter(COUNTER_RPC_TX_CACHE_TOTAL, "result", "hit");
+    this.counterRpcTxCacheMiss = Metrics.counter(COUNTER_RPC_TX_CACHE_TOTAL, "result", "miss");
+  }
 
   public void init(SorobanUpStatusOrchestrator upStatusOrchestrator) {
     // soroban status
@@ -67,6 +100,44 @@ public class MetricService {
     createGaugeSorobanNode(upStatusOrchestrator, false, false);
   }
 
+  public void init(CryptoService cryptoService) {
+    // keyPair buffer
+    Metrics.gauge(GAUGE_KEYPAIR_BUFFER, cryptoService, c -> c.getKeyPairBufferSize());
+  }
+
+  public void init(BlockchainDataService blockchainDataService) {
+    // rpc tx cache
+    Metrics.gauge(GAUGE_RPC_TX_CACHE_SIZE, blockchainDataService, b -> b.getRpcTxCacheSize());
+    Metrics.gauge(GAUGE_RPC_TX_CACHE_BYTES, blockchainDataService, b -> b.getRpcTxCacheBytes());
+  }
+
+  public void manageExecutor(String name, Supplier<ThreadPoolExecutor> executorSupplier) {
+    // executor may not be initialized yet, resolve it on each poll
+    createGaugeExecutor(
+        GAUGE_EXECUTOR_QUEUE_SIZE, name, executorSupplier, e -> e.getQueue().size());
+    createGaugeExecutor(GAUGE_EXECUTOR_ACTIVE, name, executorSupplier, e -> e.getActiveCount());
+    createGaugeExecutor(GAUGE_EXECUTOR_POOL_SIZE, name, executorSupplier, e -> e.getPoolSize());
+    executorRejectedByName.computeIfAbsent(
+        name, n -> Metrics.counter(COUNTER_EXECUTOR_REJECTED_TOTAL, "name", n));
+  }
+
+  private void createGaugeExecutor(
+      String gaugeName,
+      String name,
+      Supplier<ThreadPoolExecutor> executorSupplier,
+      ToDoubleFunction<ThreadPoolExecutor> valueFunction) {
+    Gauge.builder(gaugeName, executorSupplier, s -> valueFunction.applyAsDouble(s.get()))
+        .tag("name", name)
+        .strongReference(true) // supplier is not referenced elsewhere
+        .register(Metrics.globalRegistry);
+  }
+
+  public void onExecutorRejected(String name) {
+    executorRejectedByName
+        .computeIfAbsent(name, n -> Metrics.counter(COUNTER_EXECUTOR_REJECTED_TOTAL, "name", n))
+        .increment();
+  }
+
   private void createGaugeSorobanNode(
       SorobanUpStatusOrchestrator upStatusOrchestrator, boolean onion, boolean up) {
     Iterable<Tag> tags =
@@ -82,139 +153,67 @@ public class MetricService {
   }
 
   public void onMixResult(MixCsv mix, Collection<RegisteredInput> inputs) {
+    PoolMeters poolMeters = getPoolMeters(mix.getPoolId());
     if (MixStatus.SUCCESS.equals(mix.getMixStatus())) {
       // mix success
-      Metrics.counter(COUNTER_MIX_SUCCESS_TOTAL, "poolId", mix.getPoolId()).increment();
-
-      Metrics.summary(SUMMARY_MIX_SUCCESS_MINER_FEE_AMOUNT, "poolId", mix.getPoolId())
-          .record(mix.getFeesAmount());
-      Metrics.summary(SUMMARY_MIX_SUCCESS_MINER_FEE_PRICE, "poolId", mix.getPoolId())
-          .record(mix.getFeesPrice());
-      Metrics.summary(SUMMARY_MIX_SUCCESS_ANONYMITY_SET, "poolId", mix.getPoolId())
-          .record(mix.getAnonymitySet());
-      Metrics.timer(TIMER_MIX_SUCCESS_DURATION, "poolId", mix.getPoolId())
-          .record(Duration.of(mix.getMixDuration(), ChronoUnit.SECONDS));
-      Metrics.summary(SUMMARY_MIX_SUCCESS_VOLUME, "poolId", mix.getPoolId())
-          .record(mix.getAmountOut());
+      poolMeters.mixSuccessTotal.increment();
+      poolMeters.mixSuccessMinerFeeAmount.record(mix.getFeesAmount());
+      poolMeters.mixSuccessMinerFeePrice.record(mix.getFeesPrice());
+      poolMeters.mixSuccessAnonymitySet.record(mix.getAnonymitySet());
+      poolMeters.mixSuccessDuration.record(mix.getMixDuration(), TimeUnit.SECONDS);
+      poolMeters.mixSuccessVolume.record(mix.getAmountOut());
     } else {
       // mix fail
-      Metrics.counter(COUNTER_MIX_FAIL_TOTAL, "poolId", mix.getPoolId()).increment();
+      poolMeters.mixFailTotal.increment();
     }
 
     // inputs
     for (RegisteredInput input : inputs) {
-      List<String> tags = new LinkedList<>();
-      tags.add("poolId");
-      tags.add(mix.getPoolId());
-      if (input.getTor() != null) {
-        tags.add("tor");
-        tags.add(BooleanUtils.toStringTrueFalse(input.getTor()));
-      }
-      Metrics.counter(COUNTER_MIX_INPUT_TOTAL, tags.toArray(new String[] {})).increment();
+      Boolean tor = input.getTor();
+      Counter counter =
+          tor == null
+              ? poolMeters.mixInputTotal
+              : (tor ? poolMeters.mixInputTorTotal : poolMeters.mixInputClearnetTotal);
+      counter.increment();
     }
   }
 
   public void onClientRegisterOutput(
       Mix mix, Long mixStepElapsedTime, Long mixStepRemainingTime, boolean soroban) {
-    if (mixStepElapsedTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_ELAPSED_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.REGISTER_OUTPUT.name())
-          .record(Duration.of(mixStepElapsedTime, ChronoUnit.MILLIS));
-    }
-    if (mixStepRemainingTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_REMAINING_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.REGISTER_OUTPUT.name())
-          .record(Duration.of(mixStepRemainingTime, ChronoUnit.MILLIS));
-    }
-    if (log.isDebugEnabled()) {
-      log.debug(
-          "onClientProgress: mixStatus=REGISTER_OUTPUT, soroban="
-              + soroban
-              + ", mixStepElapsedTime="
-              + (mixStepElapsedTime != null ? mixStepElapsedTime : "null")
-              + ", mixStepRemainingTime="
-              + (mixStepRemainingTime != null ? mixStepRemainingTime : "null")
-              + ", mixId="
-              + mix.getMixId());
-    }
+    onClientProgress(
+        mix, MixStatus.REGISTER_OUTPUT, mixStepElapsedTime, mixStepRemainingTime, soroban);
   }
 
   public void onClientSigning(
       Mix mix, Long mixStepElapsedTime, Long mixStepRemainingTime, boolean soroban) {
-    if (mixStepElapsedTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_ELAPSED_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.SIGNING.name())
-          .record(Duration.of(mixStepElapsedTime, ChronoUnit.MILLIS));
-    }
-    if (mixStepRemainingTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_REMAINING_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.SIGNING.name())
-          .record(Duration.of(mixStepRemainingTime, ChronoUnit.MILLIS));
-    }
-    if (log.isDebugEnabled()) {
-      log.debug(
-          "onClientProgress: mixStatus=SIGNING, soroban="
-              + soroban
-              + ", mixStepElapsedTime="
-              + (mixStepElapsedTime != null ? mixStepElapsedTime : "null")
-              + ", mixStepRemainingTime="
-              + (mixStepRemainingTime != null ? mixStepRemainingTime : "null")
-              + ", mixId="
-              + mix.getMixId());
-    }
+    onClientProgress(mix, MixStatus.SIGNING, mixStepElapsedTime, mixStepRemainingTime, soroban);
   }
 
   public void onClientRevealOutput(
       Mix mix, Long mixStepElapsedTime, Long mixStepRemainingTime, boolean soroban) {
+    onClientProgress(
+        mix, MixStatus.REVEAL_OUTPUT, mixStepElapsedTime, mixStepRemainingTime, soroban);
+  }
+
+  private void onClientProgress(
+      Mix mix,
+      MixStatus mixStatus,
+      Long mixStepElapsedTime,
+      Long mixStepRemainingTime,
+      boolean soroban) {
+    StepTimers stepTimers =
+        getPoolMeters(mix.getPool().getPoolId()).getStepTimers(mixStatus, soroban);
     if (mixStepElapsedTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_ELAPSED_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.REVEAL_OUTPUT.name())
-          .record(Duration.of(mixStepElapsedTime, ChronoUnit.MILLIS));
+      stepTimers.elapsedTime.record(mixStepElapsedTime, TimeUnit.MILLISECONDS);
     }
     if (mixStepRemainingTime != null) {
-      Metrics.timer(
-              TIMER_MIX_STEP_REMAINING_TIME,
-              "poolId",
-              mix.getPool().getPoolId(),
-              "soroban",
-              Boolean.toString(soroban),
-              "mixStatus",
-              MixStatus.REVEAL_OUTPUT.name())
-          .record(Duration.of(mixStepRemainingTime, ChronoUnit.MILLIS));
+      stepTimers.remainingTime.record(mixStepRemainingTime, TimeUnit.MILLISECONDS);
     }
     if (log.isDebugEnabled()) {
       log.debug(
-          "onClientProgress: mixStatus=REVEAL_OUTPUT, soroban="
+          "onClientProgress: mixStatus="
+              + mixStatus
+              + ", soroban="
               + soroban
               + ", mixStepElapsedTime="
               + (mixStepElapsedTime != null ? mixStepElapsedTime : "null")
@@ -225,12 +224,24 @@ public class MetricService {
     }
   }
 
+  public void onKeyPairRefill(long durationMs) {
+    timerKeyPairRefillDuration.record(durationMs, TimeUnit.MILLISECONDS);
+  }
+
+  public void onKeyPairInline() {
+    counterKeyPairInlineTotal.increment();
+  }
+
+  public void onRpcTxCache(boolean hit) {
+    (hit ? counterRpcTxCacheHit : counterRpcTxCacheMiss).increment();
+  }
+
   public void onBlame(RegisteredInput input) {
-    Metrics.counter(COUNTER_BLAME_TOTAL, "poolId", input.getPoolId()).increment();
+    getPoolMeters(input.getPoolId()).blameTotal.increment();
   }
 
   public void onBan(RegisteredInput input) {
-    Metrics.counter(COUNTER_BAN_TOTAL, "poolId", input.getPoolId()).increment();
+    getPoolMeters(input.getPoolId()).banTotal.increment();
   }
 
   public void onTx0(
@@ -242,26 +253,54 @@ public class MetricService {
       int scodeDiscountPercent,
       String partnerId,
       boolean soroban) {
-    Metrics.counter(
-            COUNTER_TX0_TOTAL,
-            "poolId",
-            poolId,
-            "opReturnVersion",
-            Integer.toString(opReturnVersion),
-            "feePayloadVersion",
-            Integer.toString(feePayloadVersion),
-            "scodeDiscountPercent",
-            Integer.toString(scodeDiscountPercent),
-            "partnerId",
-            partnerId,
-            "soroban",
-            Boolean.toString(soroban))
+    PoolMeters poolMeters = getPoolMeters(poolId);
+    String tx0Key =
+        opReturnVersion
+            + ":"
+            + feePayloadVersion
+            + ":"
+            + scodeDiscountPercent
+            + ":"
+            + partnerId
+            + ":"
+            + soroban;
+    poolMeters
+        .tx0Total
+        .computeIfAbsent(
+            tx0Key,
+            k ->
+                Metrics.counter(
+                    COUNTER_TX0_TOTAL,
+                    "poolId",
+                    poolId,
+                    "opReturnVersion",
+                    Integer.toString(opReturnVersion),
+                    "feePayloadVersion",
+                    Integer.toString(feePayloadVersion),
+                    "scodeDiscountPercent",
+                    Integer.toString(scodeDiscountPercent),
+                    "partnerId",
+                    partnerId,
+                    "soroban",
+                    Boolean.toString(soroban)))
         .increment();
-    Metrics.summary(SUMMARY_TX0_PREMIX_COUNT, "poolId", poolId).record(premixCount);
-    Metrics.summary(SUMMARY_TX0_PREMIX_VOLUME, "poolId", poolId).record(premixVolume);
+    poolMeters.tx0PremixCount.record(premixCount);
+    poolMeters.tx0PremixVolume.record(premixVolume);
+  }
+
+  private PoolMeters getPoolMeters(String poolId) {
+    PoolMeters poolMeters = poolMetersByPoolId.get(poolId);
+    if (poolMeters == null) {
+      // pool not managed yet
+      poolMeters = poolMetersByPoolId.computeIfAbsent(poolId, id -> new PoolMeters(id));
+    }
+    return poolMeters;
   }
 
   public void manage(Pool pool) {
+    // pre-register pool meters
+    getPoolMeters(pool.getPoolId());
+
     // queue-mustMix
     Iterable<Tag> tagsTor =
         Arrays.asList(
@@ -317,4 +356,89 @@ public class MetricService {
         pool,
         p -> p.getCurrentMix().getTimeStarted().getTime() / 1000);
   }
+
+  // meters by pool, registered once
+  private static class PoolMeters {
+    private final String poolId;
+    private final Counter mixSuccessTotal;
+    private final Counter mixFailTotal;
+    private final DistributionSummary mixSuccessMinerFeeAmount;
+    private final DistributionSummary mixSuccessMinerFeePrice;
+    private final DistributionSummary mixSuccessAnonymitySet;
+    private final Timer mixSuccessDuration;
+    private final DistributionSummary mixSuccessVolume;
+    private final Counter mixInputTotal; // tor unknown
+    private final Counter mixInputTorTotal;
+    private final Counter mixInputClearnetTotal;
+    private final Counter blameTotal;
+    private final Counter banTotal;
+    private final Map<String, Counter> tx0Total;
+    private final DistributionSummary tx0PremixCount;
+    private final DistributionSummary tx0PremixVolume;
+    private final Map<MixStatus, StepTimers> stepTimers;
+    private final Map<MixStatus, StepTimers> stepTimersSoroban;
+
+    PoolMeters(String poolId) {
+      this.poolId = poolId;
+      this.mixSuccessTotal = Metrics.counter(COUNTER_MIX_SUCCESS_TOTAL, "poolId", poolId);
+      this.mixFailTotal = Metrics.counter(COUNTER_MIX_FAIL_TOTAL, "poolId", poolId);
+      this.mixSuccessMinerFeeAmount =
+          Metrics.summary(SUMMARY_MIX_SUCCESS_MINER_FEE_AMOUNT, "poolId", poolId);
+      this.mixSuccessMinerFeePrice =
+          Metrics.summary(SUMMARY_MIX_SUCCESS_MINER_FEE_PRICE, "poolId", poolId);
+      this.mixSuccessAnonymitySet =
+          Metrics.summary(SUMMARY_MIX_SUCCESS_ANONYMITY_SET, "poolId", poolId);
+      this.mixSuccessDuration = Metrics.timer(TIMER_MIX_SUCCESS_DURATION, "poolId", poolId);
+      this.mixSuccessVolume = Metrics.summary(SUMMARY_MIX_SUCCESS_VOLUME, "poolId", poolId);
+      // same tag keys for every tor value, as required by Prometheus
+      this.mixInputTotal =
+          Metrics.counter(COUNTER_MIX_INPUT_TOTAL, "poolId", poolId, "tor", "unknown");
+      this.mixInputTorTotal =
+          Metrics.counter(COUNTER_MIX_INPUT_TOTAL, "poolId", poolId, "tor", "true");
+      this.mixInputClearnetTotal =
+          Metrics.counter(COUNTER_MIX_INPUT_TOTAL, "poolId", poolId, "tor", "false");
+      this.blameTotal = Metrics.counter(COUNTER_BLAME_TOTAL, "poolId", poolId);
+      this.banTotal = Metrics.counter(COUNTER_BAN_TOTAL, "poolId", poolId);
+      this.tx0Total = new ConcurrentHashMap<>();
+      this.tx0PremixCount = Metrics.summary(SUMMARY_TX0_PREMIX_COUNT, "poolId", poolId);
+      this.tx0PremixVolume = Metrics.summary(SUMMARY_TX0_PREMIX_VOLUME, "poolId", poolId);
+      this.stepTimers = computeStepTimers(false);
+      this.stepTimersSoroban = computeStepTimers(true);
+    }
+
+    private Map<MixStatus, StepTimers> computeStepTimers(boolean soroban) {
+      Map<MixStatus, StepTimers> map = new EnumMap<>(MixStatus.class);
+      for (MixStatus mixStatus :
+          new MixStatus[] {MixStatus.REGISTER_OUTPUT, MixStatus.SIGNING, MixStatus.REVEAL_OUTPUT}) {
+        map.put(mixStatus, new StepTimers(poolId, soroban, mixStatus));
+      }
+      return map;
+    }
+
+    StepTimers getStepTimers(MixStatus mixStatus, boolean soroban) {
+      return (soroban ? stepTimersSoroban : stepTimers).get(mixStatus);
+    }
+  }
+
+  private static class StepTimers {
+    private final Timer elapsedTime;
+    private final Timer remainingTime;
+
+    StepTimers(String poolId, boolean soroban, MixStatus mixStatus) {
+      this.elapsedTime = computeTimer(TIMER_MIX_STEP_ELAPSED_TIME, poolId, soroban, mixStatus);
+      this.remainingTime = computeTimer(TIMER_MIX_STEP_REMAINING_TIME, poolId, soroban, mixStatus);
+    }
+
+    private static Timer computeTimer(
+        String name, String poolId, boolean soroban, MixStatus mixStatus) {
+      return Metrics.timer(
+          name,
+          "poolId",
+          poolId,
+          "soroban",
+          Boolean.toString(soroban),
+          "mixStatus",
+          mixStatus.name());
+    }
+  }
 }
@@ -1,5 +1,6 @@
 package com.samourai.whirlpool.server.services;
 
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.samourai.whirlpool.protocol.soroban.WhirlpoolApiClient;
 import com.samourai.whirlpool.protocol.soroban.payload.beans.MixStatus;
 import com.samourai.whirlpool.server.beans.Mix;
@@ -9,6 +10,7 @@ import com.samourai.whirlpool.server.utils.timeout.TimeoutWatcher;
 import java.lang.invoke.MethodHandles;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -20,6 +22,8 @@ public class MixLimitsService {
 
   private WhirlpoolServerConfig serverConfig;
   private MixService mixService;
+  // one thread per pool, so that a slow timeout (soroban invites, RPC) doesn't delay other pools
+  private Map<String, ScheduledThreadPoolExecutor> limitsWatcherSchedulers;
 
   private Map<String, TimeoutWatcher> limitsWatchers;
 
@@ -27,6 +31,7 @@ public class MixLimitsService {
   public MixLimitsService(WhirlpoolServerConfig serverConfig) {
     this.serverConfig = serverConfig;
     this.mixService = null;
+    this.limitsWatcherSchedulers = new ConcurrentHashMap<>();
 
     this.__reset();
   }
@@ -36,6 +41,22 @@ public class MixLimitsService {
     this.mixService = mixService;
   }
 
+  private ScheduledThreadPoolExecutor getLimitsWatcherScheduler(String poolId) {
+    return limitsWatcherSchedulers.computeIfAbsent(
+        poolId,
+        id -> {
+          ScheduledThreadPoolExecutor scheduler =
+              new ScheduledThreadPoolExecutor(
+                  1,
+                  new ThreadFactoryBuilder()
+                      .setNameFormat("limitsWatcher-" + id)
+                      .setDaemon(true)
+                      .build());
+          scheduler.setRemoveOnCancelPolicy(true); // timeouts are often rescheduled
+          return scheduler;
+        });
+  }
+
   private TimeoutWatcher getLimitsWatcher(Mix mix) {
     String mixId = mix.getMixId();
     return limitsWatchers.get(mixId);
@@ -166,7 +187,10 @@ public class MixLimitsService {
         };
 
     TimeoutWatcher mixLimitsWatcher =
-        new TimeoutWatcher(listener, "limitsWatcher-" + mix.getMixId());
+        new TimeoutWatcher(
+            listener,
+            getLimitsWatcherScheduler(mix.getPool().getPoolId()),
+            "limitsWatcher-" + mix.getMixId());
     return mixLimitsWatcher;
   }
 
@@ -0,0 +1,329 @@
+package com.samourai.whirlpool.server.services;
+
+import com.fasterxml.jackson.annotation.JsonAutoDetect;
+import com.fasterxml.jackson.annotation.PropertyAccessor;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.samourai.whirlpool.server.beans.Mix;
+import com.samourai.whirlpool.server.beans.MixStatus;
+import com.samourai.whirlpool.server.beans.RegisteredInput;
+import com.samourai.whirlpool.server.beans.export.MixCsv;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
+import com.samourai.whirlpool.server.persistence.to.MixTO;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.FileReader;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.lang.invoke.MethodHandles;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+
+/**
+ * Persists mix results (db, CSV export, metrics, mixTxid) in order, from a single worker thread.
+ * Results are first appended to a local journal, and marked done once saved to database. Database
+ * failures are retried with backoff. Results not done are replayed on startup (mix row, mixTxid row
+ * and CSV line; metrics are not replayed). When the journal can't be written, the result is saved
+ * synchronously instead.
+ */
+@Service
+public class MixResultService {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final String JOURNAL_FILENAME = "mixs-journal.log";
+  private static final String JOURNAL_PENDING = "PENDING";
+  private static final String JOURNAL_DONE = "DONE";
+  private static final long RETRY_DELAY_MIN_MS = 1000;
+  private static final long RETRY_DELAY_MAX_MS = 60000;
+
+  private DbService dbService;
+  private ExportService exportService;
+  private MetricService metricService;
+
+  private ObjectMapper objectMapper;
+  private File journalFile;
+  private FileOutputStream journalStream;
+  private Writer journalWriter;
+  private long journalSeq;
+  private int journalPending;
+
+  private ExecutorService worker;
+  private Set<String> pendingMixTxids; // txid:denomination not saved yet
+  private long retryDelayMinMs;
+  private volatile boolean stopped;
+
+  public MixResultService(
+      DbService dbService,
+      ExportService exportService,
+      MetricService metricService,
+      WhirlpoolServerConfig serverConfig)
+      throws Exception {
+    this.dbService = dbService;
+    this.exportService = exportService;
+    this.metricService = metricService;
+    this.objectMapper =
+        new ObjectMapper()
+            .setVisibility(PropertyAccessor.ALL, JsonAutoDetect.Visibility.NONE)
+            .setVisibility(PropertyAccessor.FIELD, JsonAutoDetect.Visibility.ANY)
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    this.journalFile =
+        new File(serverConfig.getExport().getMixs().getDirectory(), JOURNAL_FILENAME);
+    this.journalSeq = 0;
+    this.journalPending = 0;
+    this.worker =
+        Executors.newSingleThreadExecutor(
+            new ThreadFactoryBuilder().setNameFormat("mixResult-%d").setDaemon(true).build());
+    this.pendingMixTxids = ConcurrentHashMap.newKeySet();
+    this.retryDelayMinMs = RETRY_DELAY_MIN_MS;
+    this.stopped = false;
+
+    // replay unfinished results from previous run
+    replayJournal();
+    openJournal(false);
+  }
+
+  /** Snapshot mix result and enqueue it. Called from mix state machine, must not block. */
+  public void onMixResult(Mix mix, MixStatus mixStatus) {
+    MixTO mixTO = mix.computeMixTO();
+    MixCsv mixCsv = new MixCsv(mixTO); // snapshot, mix may change after returning
+    Collection<RegisteredInput> inputs = new ArrayList<>(mix.getInputs()._getInputs());
+    String mixTxid = computeMixTxid(mixCsv);
+
+    long seq;
+    try {
+      seq = appendPending(mixCsv);
+    } catch (Exception e) {
+      // not journaled => save now rather than risking to lose it
+      log.error(
+          "unable to write mix journal, saving mix result synchronously: " + mixCsv.getMixId(), e);
+      persistSync(mixTO, mixCsv, inputs);
+      return;
+    }
+    if (mixTxid != null) {
+      pendingMixTxids.add(computeMixTxidKey(mixTxid, mixCsv.getDenomination()));
+    }
+    worker.submit(() -> persist(seq, mixTO, mixCsv, inputs));
+  }
+
+  private void persist(long seq, MixTO mixTO, MixCsv mixCsv, Collection<RegisteredInput> inputs) {
+    onMetrics(mixCsv, inputs);
+
+    // save in database, retry with backoff
+    long retryDelayMs = retryDelayMinMs;
+    while (true) {
+      try {
+        saveMixResult(mixTO, mixCsv);
+        break;
+      } catch (Exception e) {
+        log.error(
+            "unable to save mix result, retrying in " + retryDelayMs + "ms: " + mixCsv.getMixId(),
+            e);
+      }
+      try {
+        if (stopped) {
+          throw new InterruptedException();
+        }
+        Thread.sleep(retryDelayMs);
+      } catch (InterruptedException e) {
+        // not marked as done => will be replayed on next startup
+        log.warn("mix result not saved, will be replayed from journal: " + seq);
+        return;
+      }
+      retryDelayMs = Math.min(retryDelayMs * 2, RETRY_DELAY_MAX_MS);
+    }
+
+    onSaved(mixTO, mixCsv);
+    appendDone(seq);
+  }
+
+  private void persistSync(MixTO mixTO, MixCsv mixCsv, Collection<RegisteredInput> inputs) {
+    onMetrics(mixCsv, inputs);
+    try {
+      saveMixResult(mixTO, mixCsv);
+    } catch (Exception e) {
+      log.error("unable to save mix result: " + mixCsv.getMixId(), e);
+      return;
+    }
+    onSaved(mixTO, mixCsv);
+  }
+
+  private void onMetrics(MixCsv mixCsv, Collection<RegisteredInput> inputs) {
+    try {
+      metricService.onMixResult(mixCsv, inputs);
+    } catch (Exception e) {
+      log.error("", e);
+    }
+  }
+
+  private void saveMixResult(MixTO mixTO, MixCsv mixCsv) {
+    dbService.saveMix(mixTO);
+    String mixTxid = computeMixTxid(mixCsv);
+    if (mixTxid != null) {
+      saveMixTxid(mixTxid, mixCsv.getDenomination());
+    }
+  }
+
+  private void onSaved(MixTO mixTO, MixCsv mixCsv) {
+    String mixTxid = computeMixTxid(mixCsv);
+    if (mixTxid != null) {
+      pendingMixTxids.remove(computeMixTxidKey(mixTxid, mixCsv.getDenomination()));
+    }
+
+    // export to CSV
+    mixCsv.onSaved(mixTO);
+    exportService.exportMix(mixCsv);
+  }
+
+  private String computeMixTxid(MixCsv mixCsv) {
+    return MixStatus.SUCCESS.equals(mixCsv.getMixStatus()) ? mixCsv.getTxid() : null;
+  }
+
+  private void saveMixTxid(String mixTxid, long denomination) {
+    if (!dbService.hasMixTxid(mixTxid, denomination)) {
+      dbService.saveMixTxid(mixTxid, denomination);
+    }
+  }
+
+  public boolean hasMixTxid(String txid, long denomination) {
+    return pendingMixTxids.contains(computeMixTxidKey(txid, denomination))
+        || dbService.hasMixTxid(txid, denomination);
+  }
+
+  private String computeMixTxidKey(String txid, long denomination) {
+    return txid + ":" + denomination;
+  }
+
+  // journal
+
+  private synchronized long appendPending(MixCsv mixCsv) throws Exception {
+    long seq = ++journalSeq;
+    journalWriter.write(computeJournalPending(seq, mixCsv) + "\n");
+    journalWriter.flush();
+    journalStream.getFD().sync(); // durable before returning
+    journalPending++;
+    return seq;
+  }
+
+  private String computeJournalPending(long seq, MixCsv mixCsv) throws Exception {
+    return JOURNAL_PENDING + " " + seq + " " + objectMapper.writeValueAsString(mixCsv);
+  }
+
+  private synchronized void appendDone(long seq) {
+    journalPending--;
+    try {
+      if (journalPending == 0) {
+        // everything persisted => truncate journal
+        journalWriter.close();
+        openJournal(false);
+      } else {
+        journalWriter.write(JOURNAL_DONE + " " + seq + "\n");
+        journalWriter.flush();
+      }
+    } catch (Exception e) {
+      log.error("unable to write mix journal: " + seq, e);
+    }
+  }
+
+  private void openJournal(boolean append) throws Exception {
+    journalStream = new FileOutputStream(journalFile, append);
+    journalWriter = new OutputStreamWriter(journalStream, StandardCharsets.UTF_8);
+  }
+
+  private void replayJournal() throws Exception {
+    if (!journalFile.exists()) {
+      return;
+    }
+    // find pending entries
+    Map<String, MixCsv> pendings = new LinkedHashMap<>();
+    try (BufferedReader reader = new BufferedReader(new FileReader(journalFile))) {
+      String line;
+      while ((line = reader.readLine()) != null) {
+        String[] fields = line.split(" ", 3);
+        MixCsv mixCsv = null;
+        if (fields.length == 3 && JOURNAL_PENDING.equals(fields[0])) {
+          try {
+            mixCsv = objectMapper.readValue(fields[2], MixCsv.class);
+          } catch (Exception e) {
+            // incomplete write
+          }
+        }
+        if (mixCsv != null) {
+          pendings.put(fields[1], mixCsv);
+        } else if (fields.length == 2 && JOURNAL_DONE.equals(fields[0])) {
+          pendings.remove(fields[1]);
+        } else {
+          log.warn("Ignoring invalid mix journal line: " + line); // incomplete write
+        }
+      }
+    }
+
+    // replay
+    for (MixCsv mixCsv : pendings.values()) {
+      String mixTxid = computeMixTxid(mixCsv);
+      log.warn(
+          "Replaying mix result from journal: mixId=" + mixCsv.getMixId() + ", txid=" + mixTxid);
+      if (!dbService.hasMix(mixCsv.getMixId())) {
+        MixTO mixTO = new MixTO();
+        mixTO.setFrom(mixCsv);
+        dbService.saveMix(mixTO);
+        mixCsv.onSaved(mixTO);
+        exportService.exportMix(mixCsv);
+      }
+      if (mixTxid != null) {
+        saveMixTxid(mixTxid, mixCsv.getDenomination());
+      }
+    }
+  }
+
+  public synchronized void __replayJournal() throws Exception {
+    journalWriter.close();
+    replayJournal();
+    openJournal(false);
+  }
+
+  public String __computeJournalPending(long seq, MixCsv mixCsv) throws Exception {
+    return computeJournalPending(seq, mixCsv);
+  }
+
+  public File __getJournalFile() {
+    return journalFile;
+  }
+
+  public void __setDbService(DbService dbService) {
+    this.dbService = dbService;
+  }
+
+  public void __setRetryDelayMinMs(long retryDelayMinMs) {
+    this.retryDelayMinMs = retryDelayMinMs;
+  }
+
+  public void __flush() throws Exception {
+    // wait for queued results
+    worker.submit(() -> {}).get();
+  }
+
+  public void stop() {
+    stopped = true;
+    worker.shutdown();
+    try {
+      if (!worker.awaitTermination(10, TimeUnit.SECONDS)) {
+        log.warn("mixResult worker not terminated, journal will be replayed on next startup");
+        worker.shutdownNow(); // interrupt retries
+      }
+    } catch (InterruptedException e) {
+      log.error("", e);
+    }
+  }
+}
@@ -19,7 +19,6 @@ import com.samourai.whirlpool.server.beans.MixStatus;
 import com.samourai.whirlpool.server.beans.event.MixProgressEvent;
 import com.samourai.whirlpool.server.beans.event.MixStartEvent;
 import com.samourai.whirlpool.server.beans.event.MixStopEvent;
-import com.samourai.whirlpool.server.beans.export.MixCsv;
 import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.exceptions.BroadcastException;
@@ -32,6 +31,7 @@ import java.lang.invoke.MethodHandles;
 import java.text.DateFormat;
 import java.util.*;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -49,15 +49,13 @@ public class MixService {
   private WSMessageService WSMessageService;
   private CryptoService cryptoService;
   private BlameService blameService;
-  private DbService dbService;
   private RpcClientService rpcClientService;
   private BackendService backendService;
   private MixLimitsService mixLimitsService;
   private Bech32UtilGeneric bech32Util;
   private WhirlpoolServerConfig whirlpoolServerConfig;
   private PoolService poolService;
-  private ExportService exportService;
-  private MetricService metricService;
+  private MixResultService mixResultService;
   private TaskService taskService;
   private WhirlpoolApiCoordinator whirlpoolApiCoordinator;
   private RegisterInputService registerInputService;
@@ -70,7 +68,6 @@ public class MixService {
   public MixService(
       CryptoService cryptoService,
       BlameService blameService,
-      DbService dbService,
       RpcClientService rpcClientService,
       BackendService backendService,
       WSMessageService WSMessageService,
@@ -78,15 +75,13 @@ public class MixService {
       WhirlpoolServerConfig whirlpoolServerConfig,
       MixLimitsService mixLimitsService,
       PoolService poolService,
-      ExportService exportService,
-      MetricService metricService,
+      MixResultService mixResultService,
       TaskService taskService,
       WSSessionService wsSessionService,
       WhirlpoolApiCoordinator whirlpoolApiCoordinator,
       RegisterInputService registerInputService) {
     this.cryptoService = cryptoService;
     this.blameService = blameService;
-    this.dbService = dbService;
     this.rpcClientService = rpcClientService;
     this.backendService = backendService;
     this.WSMessageService = WSMessageService;
@@ -95,8 +90,7 @@ public class MixService {
     mixLimitsService.setMixService(this); // avoids circular reference
     this.mixLimitsService = mixLimitsService;
     this.poolService = poolService;
-    this.exportService = exportService;
-    this.metricService = metricService;
+    this.mixResultService = mixResultService;
     this.taskService = taskService;
     this.whirlpoolApiCoordinator = whirlpoolApiCoordinator;
     this.registerInputService = registerInputService;
@@ -135,10 +129,7 @@ public class MixService {
     int maxInputsSameUserHash = whirlpoolServerConfig.getRegisterInput().getMaxInputsSameUserHash();
     String userHashOrNull = registeredInput.getLastUserHash();
     if (userHashOrNull != null) {
-      long countInputSameUserHash =
-          mix.getInputs()._getInputs().parallelStream()
-              .filter(input -> userHashOrNull.equals(input.getLastUserHash()))
-              .count();
+      long countInputSameUserHash = mix.getNbInputsByUserHash(userHashOrNull);
       if ((countInputSameUserHash + 1) > maxInputsSameUserHash) {
         if (log.isTraceEnabled()) {
           log.trace(
@@ -157,10 +148,7 @@ public class MixService {
     // verify max-inputs-same-hash
     String inputHash = registeredInput.getOutPoint().getHash();
     int maxInputsSameHash = whirlpoolServerConfig.getRegisterInput().getMaxInputsSameHash();
-    long countInputsSameHash =
-        mix.getInputs()._getInputs().parallelStream()
-            .filter(input -> input.getOutPoint().getHash().equals(inputHash))
-            .count();
+    long countInputsSameHash = mix.getNbInputsByTxHash(inputHash);
     if ((countInputsSameHash + 1) > maxInputsSameHash) {
       if (log.isTraceEnabled()) {
         log.trace("already " + countInputsSameHash + " inputs with same hash: " + inputHash);
@@ -222,7 +210,33 @@ public class MixService {
     inviteToMix(mix);
   }
 
-  private synchronized int inviteToMix(Mix mix) {
+  private int inviteToMix(Mix mix) {
+    // refresh soroban inputs before locking the pool, as it may block on soroban and RPC
+    if (mix.getAvailableSlotsLiquidityAndSurge() > 0) {
+      refreshSorobanInputs(mix.getPool().getLiquidityQueue());
+    }
+    if (mix.getAvailableSlotsMustMix() > 0) {
+      refreshSorobanInputs(mix.getPool().getMustMixQueue());
+    }
+
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      return doInviteToMix(mix);
+    } finally {
+      mixLock.unlock();
+    }
+  }
+
+  private void refreshSorobanInputs(InputPoolQueue queue) {
+    try {
+      queue.refreshSorobanInputs(registerInputService);
+    } catch (Exception e) {
+      log.error("error refreshing soroban inputs", e);
+    }
+  }
+
+  private int doInviteToMix(Mix mix) {
     int liquiditiesInvited = 0, mustMixsInvited = 0;
 
     // invite liquidities first (to allow concurrent liquidity remixing)
@@ -283,11 +297,6 @@ public class MixService {
 
     InputPoolQueue queue =
         (liquidity ? mix.getPool().getLiquidityQueue() : mix.getPool().getMustMixQueue());
-    try {
-      queue.refreshSorobanInputs(registerInputService);
-    } catch (Exception e) {
-      log.error("error refreshing soroban inputs", e);
-    }
     if (!queue.hasInputsClassicOrSoroban()) {
       return 0;
     }
@@ -354,6 +363,24 @@ public class MixService {
   }
 
   protected boolean isConfirmInputReady(Mix mix) {
+    if (!isMixInputsReady(mix)) {
+      return false;
+    }
+    // wait for pending bordereau signatures before moving to REGISTER_OUTPUT
+    if (mix.hasInputsSigningBordereau()) {
+      if (log.isDebugEnabled()) {
+        log.debug("[" + mix.getMixId() + "] Waiting for confirmed inputs to be signed");
+      }
+      return false;
+    }
+    // check for inputs spent in the meantime
+    if (!revalidateInputsForSpent(mix)) {
+      return false;
+    }
+    return true;
+  }
+
+  private boolean isMixInputsReady(Mix mix) {
     if (!whirlpoolServerConfig.isMixEnabled()) {
       return false;
     }
@@ -366,10 +393,6 @@ public class MixService {
     if (!mix.hasMinLiquidityMixReached()) {
       return false;
     }
-    // check for inputs spent in the meantime
-    if (!revalidateInputsForSpent(mix)) {
-      return false;
-    }
     return true;
   }
 
@@ -384,24 +407,43 @@ public class MixService {
   }
 
   protected boolean isRegisterOutputReady(Mix mix) {
-    if (!isConfirmInputReady(mix)) {
+    if (!isAllOutputsRegistered(mix)) {
       return false;
     }
+    // all outputs registered => check once for inputs spent in the meantime, before SIGNING
+    if (!revalidateInputsForSpent(mix)) {
+      return false;
+    }
+    return true;
+  }
 
+  private boolean isAllOutputsRegistered(Mix mix) {
+    if (!isMixInputsReady(mix)) {
+      return false;
+    }
     return (mix.getReceiveAddresses().size() == mix.getNbInputs());
   }
 
   protected boolean revalidateInputsForSpent(Mix mix) {
-    // check for spent inputs
-    List<RegisteredInput> spentInputs =
-        mix.getInputs()._getInputs().parallelStream()
-            .filter(
-                registeredInput -> {
-                  TxOutPoint outPoint = registeredInput.getOutPoint();
-                  // input was spent in meantime
-                  return !rpcClientService.isTxOutUnspent(outPoint.getHash(), outPoint.getIndex());
-                })
-            .collect(Collectors.toList());
+    // check for spent inputs with a single RPC batch
+    List<RegisteredInput> inputs = new ArrayList<>(mix.getInputs()._getInputs());
+    List<TxOutPoint> outPoints =
+        inputs.stream().map(RegisteredInput::getOutPoint).collect(Collectors.toList());
+    List<Boolean> unspents;
+    try {
+      unspents = rpcClientService.isTxOutUnspent(outPoints);
+    } catch (Exception e) {
+      // bitcoind unreachable => don't blame anyone, limits watcher checks again on timeout
+      log.error("Unable to check inputs for spent, will check again on mix timeout", e);
+      return false;
+    }
+    List<RegisteredInput> spentInputs = new ArrayList<>();
+    for (int i = 0; i < inputs.size(); i++) {
+      if (!unspents.get(i)) {
+        // input was spent in meantime
+        spentInputs.add(inputs.get(i));
+      }
+    }
 
     if (spentInputs.isEmpty()) {
       return true; // no input spent => valid
@@ -425,16 +467,41 @@ public class MixService {
   }
 
   protected boolean isRegisterSignaturesReady(Mix mix) {
-    if (!isRegisterOutputReady(mix)) {
+    if (!isAllOutputsRegistered(mix)) {
+      return false;
+    }
+    if (mix.getNbSignatures() != mix.getNbInputs()) {
       return false;
     }
-    return (mix.getNbSignatures() == mix.getNbInputs());
+    // last signature => check again for inputs double-spent during SIGNING, before broadcast
+    if (!revalidateInputsForSpent(mix)) {
+      return false;
+    }
+    return true;
   }
 
-  public synchronized void changeMixStatus(String mixId, MixStatus mixStatus) {
-    Mix mix = null;
+  public void changeMixStatus(String mixId, MixStatus mixStatus) {
+    Mix mix;
     try {
       mix = getMix(mixId);
+    } catch (MixException e) {
+      log.error("Unexpected mix error", e);
+      return;
+    }
+
+    // lock this pool only, other pools keep progressing
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      doChangeMixStatus(mix, mixStatus);
+    } finally {
+      mixLock.unlock();
+    }
+  }
+
+  private void doChangeMixStatus(Mix mix, MixStatus mixStatus) {
+    String mixId = mix.getMixId();
+    try {
       log.info("MIX_STATUS_CHANGE " + mix.getMixId() + " ------------> " + mixStatus);
       if (mixStatus.equals(mix.getMixStatus())) {
         // just in case...
@@ -448,6 +515,7 @@ public class MixService {
         try {
           Transaction tx = computeTransaction(mix);
           mix.setTx(tx);
+          mix.setSigningContext(new MixSigningContext(tx));
 
           log.info("Txid: " + tx.getHashAsString());
           if (log.isDebugEnabled()) {
@@ -479,7 +547,7 @@ public class MixService {
       boolean mixOver = (mixStatus == MixStatus.SUCCESS || mixStatus == MixStatus.FAIL);
       // save mix before notifying users
       if (mixOver) {
-        saveMixResult(mix, mixStatus);
+        mixResultService.onMixResult(mix, mixStatus);
       }
 
       WhirlpoolEventService.getInstance().post(new MixProgressEvent(mix));
@@ -507,19 +575,17 @@ public class MixService {
       }
     } catch (MixException e) {
       log.error("Unexpected mix error", e);
-      if (mix != null) {
-        onMixOver(mix);
-      }
+      onMixOver(mix);
     }
   }
 
   private void sendMixStatusNotificationV0(Mix mix) {
     MixStatusNotification mixStatusNotificationV0 = computeMixStatusNotificationV0(mix);
     List<String> usernames =
-        mix.getInputs().getListBySoroban(false).parallelStream()
+        mix.getInputs().getListBySoroban(false).stream()
             .map(confirmedInput -> confirmedInput.getUsername())
             .collect(Collectors.toList());
-    WSMessageService.sendPrivate(usernames, mixStatusNotificationV0);
+    WSMessageService.sendPrivateBroadcast(usernames, mixStatusNotificationV0);
   }
 
   private MixStatusNotification computeMixStatusNotificationV0(Mix mix) {
@@ -595,7 +661,7 @@ public class MixService {
 
   public Mix getMixByInputsHash(String inputsHash, MixStatus mixStatus) throws MixException {
     List<Mix> mixsFound =
-        currentMixs.values().parallelStream()
+        currentMixs.values().stream()
             .filter(mix -> mix.computeInputsHash().equals(inputsHash))
             .collect(Collectors.toList());
     if (mixsFound.size() != 1) {
@@ -664,6 +730,14 @@ public class MixService {
   }
 
   public void onTimeoutRegisterOutput(Mix mix) {
+    // all outputs may be registered while spent check failed => check again
+    if (isRegisterOutputReady(mix)) {
+      changeMixStatus(mix.getMixId(), MixStatus.SIGNING);
+      return;
+    }
+    if (!MixStatus.REGISTER_OUTPUT.equals(mix.getMixStatus())) {
+      return; // failed for spent input
+    }
     log.info("MIX_FAILED " + mix.getMixId() + " REGISTER_OUTPUT time over, mix failed.");
     if (mix.getReceiveAddresses().isEmpty()) {
       // no output registered at all => no legit user suffered, skip REVEAL_OUTPUT and immediately
@@ -687,6 +761,20 @@ public class MixService {
   }
 
   public void onTimeoutSigning(Mix mix) {
+    // all inputs may be signed while spent check failed => check again
+    if (isRegisterSignaturesReady(mix)) {
+      try {
+        broadcast(mix);
+      } catch (Exception e) {
+        log.error("Unable to broadcast tx: ", e);
+        goFail(mix, FailReason.FAIL_BROADCAST, e.getMessage());
+      }
+      return;
+    }
+    if (!MixStatus.SIGNING.equals(mix.getMixStatus())) {
+      return; // failed for spent input
+    }
+
     // blame users who didn't sign
     List<RegisteredInput> confirmedInputsToBlame = mix.getInputsNotSigned();
     blameAndResetMix(mix, confirmedInputsToBlame, BlameReason.SIGNING, FailReason.FAIL_SIGNING);
@@ -701,21 +789,25 @@ public class MixService {
 
   public void onSign(Mix mix) throws Exception {
     if (isRegisterSignaturesReady(mix)) {
-      // check final transaction
-      Transaction tx = mix.getTx();
-      tx.verify();
+      broadcast(mix);
+    }
+  }
 
-      log.info("Tx to broadcast: \n" + tx + "\nRaw: " + TxUtil.getInstance().getTxHex(tx));
-      try {
-        String txHex = TxUtil.getInstance().getTxHex(tx);
-        List<Integer> strictModeVouts =
-            IntStream.range(0, tx.getOutputs().size()).boxed().collect(Collectors.toList());
-        backendService.pushTx(txHex, strictModeVouts);
-        goSuccess(mix);
-      } catch (BroadcastException e) {
-        log.error("Unable to broadcast tx: ", e);
-        goFail(mix, FailReason.FAIL_BROADCAST, e.getFailInfo());
-      }
+  private void broadcast(Mix mix) throws Exception {
+    // check final transaction
+    Transaction tx = mix.getTx();
+    tx.verify();
+
+    log.info("Tx to broadcast: \n" + tx + "\nRaw: " + TxUtil.getInstance().getTxHex(tx));
+    try {
+      String txHex = TxUtil.getInstance().getTxHex(tx);
+      List<Integer> strictModeVouts =
+          IntStream.range(0, tx.getOutputs().size()).boxed().collect(Collectors.toList());
+      backendService.pushTx(txHex, strictModeVouts);
+      goSuccess(mix);
+    } catch (BroadcastException e) {
+      log.error("Unable to broadcast tx: ", e);
+      goFail(mix, FailReason.FAIL_BROADCAST, e.getFailInfo());
     }
   }
 
@@ -755,17 +847,23 @@ public class MixService {
     return outpointKeysToBlameStr;
   }
 
-  public synchronized void goFail(Mix mix, FailReason failReason, String failInfo) {
-    if (MixStatus.FAIL.equals(mix.getMixStatus())) {
-      // may happen when multiple inputs disconnect simultaneously
-      log.info("Ignoring goFail(): mix already failed");
-      return;
-    }
-    log.warn("Mix failed: " + failReason.name() + (failInfo != null ? ", " + failInfo : ""));
+  public void goFail(Mix mix, FailReason failReason, String failInfo) {
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      if (MixStatus.FAIL.equals(mix.getMixStatus())) {
+        // may happen when multiple inputs disconnect simultaneously
+        log.info("Ignoring goFail(): mix already failed");
+        return;
+      }
+      log.warn("Mix failed: " + failReason.name() + (failInfo != null ? ", " + failInfo : ""));
 
-    mix.setFailReason(failReason);
-    mix.setFailInfo(failInfo);
-    changeMixStatus(mix.getMixId(), MixStatus.FAIL);
+      mix.setFailReason(failReason);
+      mix.setFailInfo(failInfo);
+      changeMixStatus(mix.getMixId(), MixStatus.FAIL);
+    } finally {
+      mixLock.unlock();
+    }
   }
 
   public void goSuccess(Mix mix) {
@@ -868,32 +966,6 @@ public class MixService {
     return mix;
   }
 
-  private void saveMixResult(Mix mix, MixStatus mixStatus) {
-    // save in database
-    try {
-      dbService.saveMix(mix);
-    } catch (Exception e) {
-      log.error("", e);
-    }
-
-    // export to CSV
-    try {
-      MixCsv mixCsv = exportService.exportMix(mix);
-      metricService.onMixResult(mixCsv, mix.getInputs()._getInputs());
-    } catch (Exception e) {
-      log.error("", e);
-    }
-
-    if (mixStatus == MixStatus.SUCCESS) {
-      // save mix txid
-      try {
-        dbService.saveMixTxid(mix.getTx().getHashAsString(), mix.getPool().getDenomination());
-      } catch (Exception e) {
-        log.error("", e);
-      }
-    }
-  }
-
   private void onMixOver(Mix mix) {
     // unmanage
     try {
@@ -910,23 +982,29 @@ public class MixService {
     __nextMix(mix.getPool());
   }
 
-  private synchronized void startMix(Mix mix) {
+  private void startMix(Mix mix) {
     Pool pool = mix.getPool();
-    Mix currentMix = pool.getCurrentMix();
-    if (currentMix != null) {
-      currentMixs.remove(currentMix.getMixId());
-      // TODO disconnect all clients (except liquidities?)
-    }
-    pool.clearQuarantine();
+    ReentrantLock mixLock = pool.getMixLock();
+    mixLock.lock();
+    try {
+      Mix currentMix = pool.getCurrentMix();
+      if (currentMix != null) {
+        currentMixs.remove(currentMix.getMixId());
+        // TODO disconnect all clients (except liquidities?)
+      }
+      pool.clearQuarantine();
 
-    String mixId = mix.getMixId();
-    currentMixs.put(mixId, mix);
-    pool.setCurrentMix(mix);
+      String mixId = mix.getMixId();
+      currentMixs.put(mixId, mix);
+      pool.setCurrentMix(mix);
 
-    log.info("MIX_START " + mix.getMixId() + " ************************");
-    logMixStatus(mix);
-    mixLimitsService.manage(mix);
-    WhirlpoolEventService.getInstance().post(new MixStartEvent(mix));
+      log.info("MIX_START " + mix.getMixId() + " ************************");
+      logMixStatus(mix);
+      mixLimitsService.manage(mix);
+      WhirlpoolEventService.getInstance().post(new MixStartEvent(mix));
+    } finally {
+      mixLock.unlock();
+    }
   }
 
   public MixLimitsService __getMixLimitsService() {
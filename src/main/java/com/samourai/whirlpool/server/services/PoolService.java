@@ -91,7 +91,7 @@ public class PoolService {
   }
 
   public Collection<PoolInfo> computePoolInfosSoroban(long feePerB) {
-    return getPools().parallelStream()
+    return getPools().stream()
         .map(
             pool ->
                 new PoolInfo(
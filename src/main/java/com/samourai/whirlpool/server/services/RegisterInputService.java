@@ -13,11 +13,15 @@ import com.samourai.whirlpool.server.exceptions.BannedInputException;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.persistence.to.BanTO;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Optional;
 import org.apache.commons.lang3.BooleanUtils;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.AsyncTaskExecutor;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -33,6 +37,8 @@ public class RegisterInputService {
   private InputValidationService inputValidationService;
   private BanService banService;
   private DbService dbService;
+  private MixResultService mixResultService;
+  private AsyncTaskExecutor validationExecutor;
 
   @Autowired
   public RegisterInputService(
@@ -41,13 +47,17 @@ public class RegisterInputService {
       BlockchainDataService blockchainDataService,
       InputValidationService inputValidationService,
       BanService banService,
-      DbService dbService) {
+      DbService dbService,
+      MixResultService mixResultService,
+      @Qualifier("sorobanInputValidationExecutor") AsyncTaskExecutor validationExecutor) {
     this.whirlpoolServerConfig = whirlpoolServerConfig;
     this.formatsUtil = formatsUtil;
     this.blockchainDataService = blockchainDataService;
     this.inputValidationService = inputValidationService;
     this.banService = banService;
     this.dbService = dbService;
+    this.mixResultService = mixResultService;
+    this.validationExecutor = validationExecutor;
   }
 
   public RegisteredInput validateRegisterInputRequest(
@@ -125,7 +135,7 @@ public class RegisterInputService {
       String txid = rpcTransaction.getTx().getHashAsString();
       if (!dbService.hasTx0Whitelist(txid)) {
         // verify input is a valid mustMix or liquidity
-        boolean hasMixTxid = dbService.hasMixTxid(txid, txOutPoint.getValue());
+        boolean hasMixTxid = mixResultService.hasMixTxid(txid, txOutPoint.getValue());
         inputValidationService.validateProvenance(rpcTransaction, liquidity, pool, hasMixTxid);
       } else {
         log.warn("tx0 check disabled by whitelist for txid=" + txid);
@@ -161,6 +171,44 @@ public class RegisterInputService {
     }
   }
 
+  /**
+   * In-memory re-check of an input already accepted by validateRegisterInputRequest(), for a new
+   * request with same sender, outpoint and signature: blockHeight, balance and confirmations.
+   * Signature and provenance can't change for same request, and are not re-checked.
+   */
+  public boolean revalidateRegisterInputRequest(
+      Pool pool, TxOutPoint txOutPoint, boolean liquidity, int blockHeight) {
+    if (blockHeight > 0 && !blockchainDataService.checkBlockHeight(blockHeight)) {
+      return false;
+    }
+    if (!pool.checkInputBalance(txOutPoint.getValue(), liquidity)) {
+      return false;
+    }
+    return isUtxoConfirmed(txOutPoint, liquidity);
+  }
+
+  /**
+   * Cheap re-check of inputs already accepted by validateRegisterInputRequest(): not banned since
+   * and still unspent (single RPC batch).
+   *
+   * @return validity for each outPoint, in same order
+   */
+  public List<Boolean> revalidateRegisteredInputs(List<TxOutPoint> outPoints) throws Exception {
+    List<Boolean> unspents = blockchainDataService.isTxOutUnspent(outPoints);
+    List<Boolean> results = new ArrayList<>(outPoints.size());
+    for (int i = 0; i < outPoints.size(); i++) {
+      TxOutPoint outPoint = outPoints.get(i);
+      boolean banned =
+          banService.findActiveBan(outPoint.getHash(), outPoint.getIndex()).isPresent();
+      results.add(!banned && unspents.get(i));
+    }
+    return results;
+  }
+
+  public AsyncTaskExecutor getValidationExecutor() {
+    return validationExecutor;
+  }
+
   private boolean isUtxoConfirmed(TxOutPoint txOutPoint, boolean liquidity) {
     int inputConfirmations = txOutPoint.getConfirmations();
     if (liquidity) {
@@ -10,6 +10,7 @@ import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.locks.ReentrantLock;
 import org.apache.commons.lang3.StringUtils;
 import org.bitcoinj.core.NetworkParameters;
 import org.slf4j.Logger;
@@ -47,9 +48,11 @@ public class RegisterOutputService {
     this.seenBackend = seenBackend;
   }
 
-  public synchronized void registerOutput(
+  public void registerOutput(
       Mix mix, byte[] unblindedSignedBordereau, String receiveAddress, byte[] bordereau)
       throws Exception {
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
     try {
       // validate
       validate(receiveAddress);
@@ -72,6 +75,8 @@ public class RegisterOutputService {
       log.info("registerOutput failed for " + receiveAddress + ": " + e.getMessage());
       mixService.registerOutputFailure(mix, receiveAddress);
       throw e;
+    } finally {
+      mixLock.unlock();
     }
   }
 
@@ -104,7 +109,7 @@ public class RegisterOutputService {
 
     // verify unblindedSignedBordereau
     if (!cryptoService.verifyUnblindedSignedBordereau(
-        bordereau, unblindedSignedBordereau, mix.getKeyPair())) {
+        bordereau, unblindedSignedBordereau, mix.getCryptoContext())) {
       throw new IllegalInputException(
           WhirlpoolErrorCode.INVALID_ARGUMENT, "Invalid unblindedSignedBordereau", inputInfo);
     }
@@ -5,6 +5,7 @@ import com.samourai.whirlpool.server.beans.Mix;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.locks.ReentrantLock;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,8 +22,19 @@ public class RevealOutputService {
     this.mixService = mixService;
   }
 
-  public synchronized void revealOutput(
-      String receiveAddress, Mix mix, RegisteredInput confirmedInput) throws Exception {
+  public void revealOutput(String receiveAddress, Mix mix, RegisteredInput confirmedInput)
+      throws Exception {
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      doRevealOutput(receiveAddress, mix, confirmedInput);
+    } finally {
+      mixLock.unlock();
+    }
+  }
+
+  private void doRevealOutput(String receiveAddress, Mix mix, RegisteredInput confirmedInput)
+      throws Exception {
     if (log.isDebugEnabled()) {
       log.debug(
           "(<) MIX_REVEAL_OUTPUT_"
@@ -3,11 +3,13 @@ package com.samourai.whirlpool.server.services;
 import com.samourai.wallet.util.TxUtil;
 import com.samourai.whirlpool.protocol.WhirlpoolErrorCode;
 import com.samourai.whirlpool.server.beans.Mix;
+import com.samourai.whirlpool.server.beans.MixSigningContext;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.locks.ReentrantLock;
 import org.bitcoinj.core.Transaction;
 import org.bitcoinj.core.TransactionWitness;
 import org.slf4j.Logger;
@@ -28,38 +30,82 @@ public class SigningService {
     this.txUtil = txUtil;
   }
 
-  public synchronized void signing(String[] witness60, Mix mix, RegisteredInput confirmedInput)
+  public void signing(String[] witness60, Mix mix, RegisteredInput confirmedInput)
       throws Exception {
     if (log.isDebugEnabled()) {
       log.debug("(<) MIX_SIGNING " + mix.getMixId() + " " + confirmedInput);
     }
 
     // check user
-    if (mix.isSigned(confirmedInput)) {
+    checkNotSigned(mix, confirmedInput);
+    MixSigningContext signingContext = mix.getSigningContext();
+    if (signingContext == null) {
       throw new IllegalInputException(
-          WhirlpoolErrorCode.INPUT_ALREADY_REGISTERED, "User already signed", confirmedInput);
+          WhirlpoolErrorCode.INVALID_ARGUMENT, "Mix is not signing", confirmedInput);
     }
     TxOutPoint txOutPoint = confirmedInput.getOutPoint();
-
-    // sign
-    Transaction tx = mix.getTx();
-    Integer inputIndex = txUtil.findInputIndex(tx, txOutPoint.getHash(), txOutPoint.getIndex());
+    Transaction tx = signingContext.getTx();
+    Integer inputIndex = signingContext.findInputIndex(txOutPoint.getHash(), txOutPoint.getIndex());
+    if (inputIndex == null) {
+      throw new IllegalInputException(
+          WhirlpoolErrorCode.INPUT_REJECTED, "Input not found in mix tx", confirmedInput);
+    }
     TransactionWitness witness = Utils.witnessUnserialize64(witness60);
-    tx.setWitness(inputIndex, witness);
 
-    // verify
+    // verify concurrently, without mix lock
+    Boolean verified;
     try {
-      txUtil.verifySignInput(tx, inputIndex, txOutPoint.getValue(), txOutPoint.getScriptBytes());
+      verified =
+          signingContext.verifyWitness(
+              inputIndex, witness, txOutPoint.getValue(), txOutPoint.getScriptBytes());
     } catch (Exception e) {
-      log.error("Invalid signature: verifySignInput failed", e);
+      log.error("Invalid signature: verifyWitness failed", e);
+      verified = false;
+    }
+    if (Boolean.FALSE.equals(verified)) {
+      log.error("Invalid signature: verifyWitness failed for " + confirmedInput);
       throw new IllegalInputException(
           WhirlpoolErrorCode.INVALID_ARGUMENT, "Invalid signature", confirmedInput);
     }
 
-    // signature success
-    mix.setTx(tx);
-    mix.setSigned(confirmedInput);
+    ReentrantLock mixLock = mix.getPool().getMixLock();
+    mixLock.lock();
+    try {
+      // mix may have changed meanwhile
+      checkNotSigned(mix, confirmedInput);
+      if (mix.getSigningContext() != signingContext) {
+        throw new IllegalInputException(
+            WhirlpoolErrorCode.INVALID_ARGUMENT, "Mix is not signing", confirmedInput);
+      }
+
+      // sign
+      tx.setWitness(inputIndex, witness);
+      if (verified == null) {
+        // not a P2WPKH SIGHASH_ALL witness => full script verification
+        try {
+          txUtil.verifySignInput(
+              tx, inputIndex, txOutPoint.getValue(), txOutPoint.getScriptBytes());
+        } catch (Exception e) {
+          log.error("Invalid signature: verifySignInput failed", e);
+          throw new IllegalInputException(
+              WhirlpoolErrorCode.INVALID_ARGUMENT, "Invalid signature", confirmedInput);
+        }
+      }
 
-    mixService.onSign(mix);
+      // signature success
+      mix.setTx(tx);
+      mix.setSigned(confirmedInput);
+
+      mixService.onSign(mix);
+    } finally {
+      mixLock.unlock();
+    }
+  }
+
+  private void checkNotSigned(Mix mix, RegisteredInput confirmedInput) throws Exception {
+    if (mix.isSigned(confirmedInput)) {
+      throw new IllegalInputException(
+          WhirlpoolErrorCode.INPUT_ALREADY_REGISTERED, "User already signed", confirmedInput);
+    }
   }
 }
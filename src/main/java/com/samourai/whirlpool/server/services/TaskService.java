@@ -6,6 +6,7 @@ import java.util.concurrent.ScheduledFuture;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.scheduling.TaskScheduler;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
 import org.springframework.stereotype.Service;
 
 @Service
@@ -14,8 +15,13 @@ public class TaskService {
 
   private TaskScheduler taskScheduler;
 
-  public TaskService(TaskScheduler taskScheduler) {
+  public TaskService(TaskScheduler taskScheduler, MetricService metricService) {
     this.taskScheduler = taskScheduler;
+    if (taskScheduler instanceof ThreadPoolTaskScheduler) {
+      ThreadPoolTaskScheduler threadPoolTaskScheduler = (ThreadPoolTaskScheduler) taskScheduler;
+      metricService.manageExecutor(
+          "scheduler", () -> threadPoolTaskScheduler.getScheduledThreadPoolExecutor());
+    }
   }
 
   public ScheduledFuture runOnce(long delayMilliSeconds, Runnable runnable) {
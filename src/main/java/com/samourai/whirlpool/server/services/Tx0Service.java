@@ -5,7 +5,6 @@ import com.samourai.wallet.api.backend.beans.BackendPushTxException;
 import com.samourai.wallet.util.RandomUtil;
 import com.samourai.wallet.util.TxUtil;
 import com.samourai.wallet.util.Util;
-import com.samourai.wallet.xmanagerClient.XManagerClient;
 import com.samourai.whirlpool.protocol.WhirlpoolProtocol;
 import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0DataRequest;
 import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0DataResponse;
@@ -47,7 +46,7 @@ public class Tx0Service {
   private ExportService exportService;
   private WhirlpoolServerConfig serverConfig;
   private WhirlpoolServerContext serverContext;
-  private XManagerClient xManagerClient;
+  private FeeAddressService feeAddressService;
   private BackendService backendService;
   private MetricService metricService;
 
@@ -61,7 +60,7 @@ public class Tx0Service {
       ExportService exportService,
       WhirlpoolServerConfig serverConfig,
       WhirlpoolServerContext serverContext,
-      XManagerClient xManagerClient,
+      FeeAddressService feeAddressService,
       BackendService backendService,
       MetricService metricService) {
     this.poolService = poolService;
@@ -72,7 +71,7 @@ public class Tx0Service {
     this.exportService = exportService;
     this.serverConfig = serverConfig;
     this.serverContext = serverContext;
-    this.xManagerClient = xManagerClient;
+    this.feeAddressService = feeAddressService;
     this.backendService = backendService;
     this.metricService = metricService;
   }
@@ -163,8 +162,7 @@ public class Tx0Service {
     if (feeValue > 0) {
       // fees
       XManagerService xManagerService = partner.getXmService();
-      AddressIndexResponse addressIndexResponse =
-          xManagerClient.getAddressIndexOrDefault(xManagerService);
+      AddressIndexResponse addressIndexResponse = feeAddressService.getFeeAddress(xManagerService);
       feeIndex = addressIndexResponse.index;
       feeAddress = addressIndexResponse.address;
       feeChange = 0;
@@ -288,7 +286,7 @@ public class Tx0Service {
     if (feeValue > 0) {
       // fees
       AddressIndexResponse addressIndexResponse =
-          xManagerClient.getAddressIndexOrDefault(XManagerService.XM000);
+          feeAddressService.getFeeAddress(XManagerService.XM000);
       feeIndex = addressIndexResponse.index;
       feeAddress = addressIndexResponse.address;
       feeChange = 0;
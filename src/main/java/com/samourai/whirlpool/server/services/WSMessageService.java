@@ -5,12 +5,18 @@ import com.samourai.javawsserver.services.JWSSMessageService;
 import com.samourai.whirlpool.protocol.v0.WhirlpoolProtocolV0;
 import com.samourai.whirlpool.protocol.websocket.messages.ErrorResponse;
 import java.lang.invoke.MethodHandles;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
 import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.stereotype.Service;
 
@@ -18,6 +24,9 @@ import org.springframework.stereotype.Service;
 public class WSMessageService extends JWSSMessageService {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private WhirlpoolProtocolV0 whirlpoolProtocol;
+  private SimpMessagingTemplate messagingTemplate;
+  private TaskExecutor taskExecutor;
+  private Map<Class<?>, Map<String, Object>> headersByType; // cached headers by payload type
 
   @Autowired
   public WSMessageService(
@@ -27,6 +36,9 @@ public class WSMessageService extends JWSSMessageService {
       JWSSConfig config) {
     super(messagingTemplate, taskExecutor, config);
     this.whirlpoolProtocol = whirlpoolProtocol;
+    this.messagingTemplate = messagingTemplate;
+    this.taskExecutor = taskExecutor;
+    this.headersByType = new ConcurrentHashMap<>();
   }
 
   public void sendPrivateError(String username, int errorCode, String message) {
@@ -37,10 +49,54 @@ public class WSMessageService extends JWSSMessageService {
     sendPrivate(username, errorResponse);
   }
 
+  /** Send same payload to many users: payload and headers are serialized once for all users. */
+  public void sendPrivateBroadcast(Collection<String> usernames, Object payload) {
+    taskExecutor.execute(
+        () -> {
+          try {
+            Message<?> message = computeMessage(payload);
+            for (String username : usernames) {
+              messagingTemplate.send(computeUserDestination(username), message);
+            }
+          } catch (Exception e) {
+            log.error("sendPrivateBroadcast failed", e);
+          }
+        });
+  }
+
+  protected Message<?> computeMessage(Object payload) throws Exception {
+    SimpMessageHeaderAccessor headerAccessor =
+        SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+    for (Map.Entry<String, Object> header : computeHeaders(payload).entrySet()) {
+      headerAccessor.setNativeHeader(header.getKey(), header.getValue().toString());
+    }
+    // immutable message: headers are copied by each send, payload bytes are shared
+    Message<?> message =
+        messagingTemplate
+            .getMessageConverter()
+            .toMessage(payload, headerAccessor.getMessageHeaders());
+    if (message == null) {
+      throw new Exception("Unable to convert payload: " + payload.getClass().getName());
+    }
+    return message;
+  }
+
+  private String computeUserDestination(String username) {
+    // same as SimpMessagingTemplate.convertAndSendToUser()
+    return messagingTemplate.getUserDestinationPrefix()
+        + username.replace("/", "%2F")
+        + WhirlpoolProtocolV0.WS_PREFIX_USER_REPLY;
+  }
+
   protected Map<String, Object> computeHeaders(Object payload) {
-    Map<String, Object> headers = new HashMap<>();
-    headers.put(whirlpoolProtocol.HEADER_MESSAGE_TYPE, payload.getClass().getName());
-    headers.put(whirlpoolProtocol.HEADER_PROTOCOL_VERSION, WhirlpoolProtocolV0.PROTOCOL_VERSION);
-    return headers;
+    return headersByType.computeIfAbsent(
+        payload.getClass(),
+        type -> {
+          Map<String, Object> headers = new HashMap<>();
+          headers.put(whirlpoolProtocol.HEADER_MESSAGE_TYPE, type.getName());
+          headers.put(
+              whirlpoolProtocol.HEADER_PROTOCOL_VERSION, WhirlpoolProtocolV0.PROTOCOL_VERSION);
+          return Collections.unmodifiableMap(headers);
+        });
   }
 }
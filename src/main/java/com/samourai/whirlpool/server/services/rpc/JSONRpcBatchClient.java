@@ -0,0 +1,143 @@
+package com.samourai.whirlpool.server.services.rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import java.lang.invoke.MethodHandles;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.List;
+import org.apache.http.HttpHeaders;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpPost;
+import org.apache.http.entity.ContentType;
+import org.apache.http.entity.StringEntity;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** JSON-RPC client sending batches of calls in a single request, over keep-alive connections. */
+public class JSONRpcBatchClient {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int MAX_CONNECTIONS = 4;
+  private static final int TIMEOUT_MS = 30000;
+  private static final int BATCH_MAX_SIZE = 500;
+
+  private String url;
+  private String authorization;
+  private CloseableHttpClient httpClient;
+  private ObjectMapper objectMapper;
+
+  public JSONRpcBatchClient(URL rpcUrl) throws Exception {
+    this.url = new URL(rpcUrl.getProtocol(), rpcUrl.getHost(), rpcUrl.getPort(), "/").toString();
+    this.authorization =
+        rpcUrl.getUserInfo() != null
+            ? "Basic "
+                + Base64.getEncoder()
+                    .encodeToString(rpcUrl.getUserInfo().getBytes(StandardCharsets.UTF_8))
+            : null;
+
+    PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(MAX_CONNECTIONS);
+    connectionManager.setDefaultMaxPerRoute(MAX_CONNECTIONS);
+    RequestConfig requestConfig =
+        RequestConfig.custom()
+            .setConnectTimeout(TIMEOUT_MS)
+            .setConnectionRequestTimeout(TIMEOUT_MS)
+            .setSocketTimeout(TIMEOUT_MS)
+            .build();
+    this.httpClient =
+        HttpClients.custom()
+            .setConnectionManager(connectionManager)
+            .setDefaultRequestConfig(requestConfig)
+            .build();
+    this.objectMapper = new ObjectMapper();
+  }
+
+  /**
+   * Call a RPC method once for each params, batched in as few requests as possible.
+   *
+   * @return results in same order as paramsList, null for null result or error
+   */
+  public List<JsonNode> call(String method, List<List<Object>> paramsList) throws Exception {
+    if (paramsList.isEmpty()) {
+      return Collections.emptyList();
+    }
+    List<JsonNode> results = new ArrayList<>(paramsList.size());
+    for (int from = 0; from < paramsList.size(); from += BATCH_MAX_SIZE) {
+      int to = Math.min(from + BATCH_MAX_SIZE, paramsList.size());
+      results.addAll(callBatch(method, paramsList.subList(from, to)));
+    }
+    return results;
+  }
+
+  private List<JsonNode> callBatch(String method, List<List<Object>> paramsList) throws Exception {
+    // build batch request
+    ArrayNode request = objectMapper.createArrayNode();
+    for (int i = 0; i < paramsList.size(); i++) {
+      ObjectNode call = request.addObject();
+      call.put("jsonrpc", "1.0");
+      call.put("id", i);
+      call.put("method", method);
+      call.set("params", objectMapper.valueToTree(paramsList.get(i)));
+    }
+
+    // send
+    HttpPost httpPost = new HttpPost(url);
+    if (authorization != null) {
+      httpPost.setHeader(HttpHeaders.AUTHORIZATION, authorization);
+    }
+    httpPost.setEntity(
+        new StringEntity(objectMapper.writeValueAsString(request), ContentType.APPLICATION_JSON));
+    JsonNode response;
+    try (CloseableHttpResponse httpResponse = httpClient.execute(httpPost)) {
+      // always consume entity to keep connection alive
+      String responseBody = EntityUtils.toString(httpResponse.getEntity());
+      int statusCode = httpResponse.getStatusLine().getStatusCode();
+      if (statusCode == 401 || statusCode == 403) {
+        throw new Exception("RPC authentication failed: " + statusCode);
+      }
+      response = objectMapper.readTree(responseBody);
+    }
+    if (response == null || !response.isArray()) {
+      throw new Exception("Invalid RPC batch response for " + method + ": " + response);
+    }
+
+    // responses may come in any order
+    JsonNode[] results = new JsonNode[paramsList.size()];
+    for (JsonNode item : response) {
+      int id = item.path("id").asInt(-1);
+      if (id < 0 || id >= results.length) {
+        throw new Exception("Invalid RPC batch response id for " + method + ": " + id);
+      }
+      JsonNode error = item.get("error");
+      if (error != null && !error.isNull()) {
+        if (log.isDebugEnabled()) {
+          log.debug("RPC error: " + method + " " + paramsList.get(id) + ": " + error);
+        }
+        continue;
+      }
+      JsonNode result = item.get("result");
+      results[id] = (result != null && !result.isNull() ? result : null);
+    }
+    List<JsonNode> resultsList = new ArrayList<>(results.length);
+    Collections.addAll(resultsList, results);
+    return resultsList;
+  }
+
+  public void close() {
+    try {
+      httpClient.close();
+    } catch (Exception e) {
+      log.error("", e);
+    }
+  }
+}
@@ -1,16 +1,23 @@
 package com.samourai.whirlpool.server.services.rpc;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.samourai.javaserver.utils.ServerUtils;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import java.lang.invoke.MethodHandles;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Service;
 import wf.bitcoin.javabitcoindrpcclient.BitcoinJSONRPCClient;
-import wf.bitcoin.javabitcoindrpcclient.BitcoindRpcClient;
 
 @Service
 @Profile("!" + ServerUtils.PROFILE_TEST)
@@ -18,6 +25,7 @@ public class JSONRpcClientServiceImpl implements RpcClientService {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private WhirlpoolServerConfig whirlpoolServerConfig;
   private BitcoinJSONRPCClient rpcClient;
+  private JSONRpcBatchClient rpcBatchClient;
 
   private static final String CHAIN_TESTNET = "test";
   private static final String CHAIN_MAINNET = "main";
@@ -27,6 +35,7 @@ public class JSONRpcClientServiceImpl implements RpcClientService {
     this.whirlpoolServerConfig = whirlpoolServerConfig;
     URL url = computeRpcClientUrl();
     this.rpcClient = new BitcoinJSONRPCClient(url);
+    this.rpcBatchClient = new JSONRpcBatchClient(url);
   }
 
   @Override
@@ -71,37 +80,41 @@ public class JSONRpcClientServiceImpl implements RpcClientService {
 
   @Override
   public Optional<RpcRawTransactionResponse> getRawTransaction(String txid) {
+    return Optional.ofNullable(getRawTransactions(Arrays.asList(txid)).get(txid));
+  }
+
+  @Override
+  public Map<String, RpcRawTransactionResponse> getRawTransactions(Collection<String> txids) {
+    List<String> txidsList = new ArrayList<>(txids);
+    List<List<Object>> paramsList = new ArrayList<>(txidsList.size());
+    for (String txid : txidsList) {
+      paramsList.add(Arrays.asList(txid, true)); // verbose
+    }
+    Map<String, RpcRawTransactionResponse> results = new HashMap<>();
     try {
-      BitcoindRpcClient.RawTransaction rawTx = rpcClient.getRawTransaction(txid);
-      if (rawTx == null) {
-        return Optional.empty();
+      List<JsonNode> rawTxs = rpcBatchClient.call("getrawtransaction", paramsList);
+      for (int i = 0; i < rawTxs.size(); i++) {
+        JsonNode rawTx = rawTxs.get(i);
+        if (rawTx != null) {
+          Integer confirmations =
+              rawTx.has("confirmations") ? rawTx.get("confirmations").asInt() : null;
+          Long txTime = rawTx.has("time") ? rawTx.get("time").asLong() * 1000 : null;
+          RpcRawTransactionResponse rpcTxResponse =
+              new RpcRawTransactionResponse(rawTx.get("hex").asText(), confirmations, txTime);
+          results.put(txidsList.get(i), rpcTxResponse);
+        }
       }
-      Long txTime = rawTx.time() != null ? rawTx.time().getTime() : null;
-      RpcRawTransactionResponse rpcTxResponse =
-          new RpcRawTransactionResponse(rawTx.hex(), rawTx.confirmations(), txTime);
-      return Optional.of(rpcTxResponse);
     } catch (Exception e) {
-      log.error("getRawTransaction error", e);
-      return Optional.empty();
+      log.error("getRawTransactions error", e);
     }
+    return results;
   }
 
   @Override
   public boolean isTxOutUnspent(String txid, long index) {
+    TxOutPoint outPoint = new TxOutPoint(txid, index, 0, 0, null, null);
     try {
-      // getTxOut only returns unspent outputs
-      BitcoindRpcClient.TxOut txOut = rpcClient.getTxOut(txid, index, true);
-      // returns empty TxOut object when spent ({m: null})
-      if (txOut != null) {
-
-        // TODO https://github.com/Polve/bitcoin-rpc-client/pull/109
-        try {
-          txOut.value();
-        } catch (NullPointerException e) {
-          return false;
-        }
-        return true;
-      }
+      return isTxOutUnspent(Arrays.asList(outPoint)).get(0);
     } catch (Exception e) {
       log.error("getUnspentTxOut error", e);
     }
@@ -109,6 +122,21 @@ public class JSONRpcClientServiceImpl implements RpcClientService {
     return false;
   }
 
+  @Override
+  public List<Boolean> isTxOutUnspent(List<TxOutPoint> outPoints) throws Exception {
+    List<List<Object>> paramsList = new ArrayList<>(outPoints.size());
+    for (TxOutPoint outPoint : outPoints) {
+      paramsList.add(Arrays.asList(outPoint.getHash(), outPoint.getIndex(), true)); // mempool
+    }
+    // gettxout only returns unspent outputs, null when spent or not found
+    List<JsonNode> txOuts = rpcBatchClient.call("gettxout", paramsList);
+    List<Boolean> results = new ArrayList<>(txOuts.size());
+    for (JsonNode txOut : txOuts) {
+      results.add(txOut != null && txOut.has("value"));
+    }
+    return results;
+  }
+
   /*@Override
   public void broadcastTransaction(Transaction tx) throws BroadcastException {
     String txid = tx.getHashAsString();
@@ -5,6 +5,7 @@ import com.samourai.wallet.segwit.SegwitAddress;
 import com.samourai.wallet.segwit.bech32.Bech32UtilGeneric;
 import com.samourai.wallet.util.TxUtil;
 import com.samourai.whirlpool.server.beans.rpc.RpcTransaction;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.services.CryptoService;
 import java.io.File;
 import java.lang.invoke.MethodHandles;
@@ -12,6 +13,7 @@ import java.nio.file.Files;
 import java.nio.file.Paths;
 import java.nio.file.StandardOpenOption;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import org.aspectj.util.FileUtil;
@@ -35,6 +37,7 @@ public class MockRpcClientServiceImpl implements RpcClientService {
 
   private Map<String, RpcRawTransactionResponse> mockTransactions;
   private Map<String, Boolean> mockSpentOutputs;
+  private boolean mockUnreachable;
 
   public static final int MOCK_TX_CONFIRMATIONS = 99;
   private static final long MOCK_TX_TIME = 900000;
@@ -88,6 +91,14 @@ public class MockRpcClientServiceImpl implements RpcClientService {
     return !mockSpentOutputs.containsKey(txid + ":" + index);
   }
 
+  @Override
+  public List<Boolean> isTxOutUnspent(List<TxOutPoint> outPoints) throws Exception {
+    if (mockUnreachable) {
+      throw new Exception("mock bitcoind unreachable");
+    }
+    return RpcClientService.super.isTxOutUnspent(outPoints);
+  }
+
   @Override
   public int getBlockHeight() {
     return MOCK_BLOCK_HEIGHT;
@@ -104,9 +115,14 @@ public class MockRpcClientServiceImpl implements RpcClientService {
     mockSpentOutputs.put(txid + ":" + index, true);
   }
 
+  public void mockUnreachable(boolean unreachable) {
+    mockUnreachable = unreachable;
+  }
+
   public void resetMock() {
     mockTransactions = new HashMap<>();
     mockSpentOutputs = new HashMap<>();
+    mockUnreachable = false;
   }
 
   // ------------
@@ -1,13 +1,35 @@
 package com.samourai.whirlpool.server.services.rpc;
 
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 public interface RpcClientService {
   boolean testConnectivity();
 
   Optional<RpcRawTransactionResponse> getRawTransaction(String txid);
 
+  // found txs by txid
+  default Map<String, RpcRawTransactionResponse> getRawTransactions(Collection<String> txids) {
+    Map<String, RpcRawTransactionResponse> results = new HashMap<>();
+    for (String txid : txids) {
+      getRawTransaction(txid).ifPresent(rawTx -> results.put(txid, rawTx));
+    }
+    return results;
+  }
+
   boolean isTxOutUnspent(String txid, long index);
 
+  // unspent status in same order as outPoints, throws when bitcoind is unreachable
+  default List<Boolean> isTxOutUnspent(List<TxOutPoint> outPoints) throws Exception {
+    return outPoints.stream()
+        .map(outPoint -> isTxOutUnspent(outPoint.getHash(), outPoint.getIndex()))
+        .collect(Collectors.toList());
+  }
+
   int getBlockHeight() throws Exception;
 }
@@ -0,0 +1,55 @@
+package com.samourai.whirlpool.server.utils;
+
+import java.lang.invoke.MethodHandles;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/**
+ * Never drops a task on saturation: waits up to offerTimeoutMs for room in the queue, then runs the
+ * task on the caller thread as last resort. Only {@link BestEffort} tasks are dropped.
+ */
+public class BlockingRejectedExecutionHandler implements RejectedExecutionHandler {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private final String name;
+  private final long offerTimeoutMs;
+  private final Runnable onRejected;
+
+  /** Task which may be dropped when the executor is saturated. */
+  public interface BestEffort extends Runnable {}
+
+  public BlockingRejectedExecutionHandler(String name, long offerTimeoutMs, Runnable onRejected) {
+    this.name = name;
+    this.offerTimeoutMs = offerTimeoutMs;
+    this.onRejected = onRejected;
+  }
+
+  @Override
+  public void rejectedExecution(Runnable runnable, ThreadPoolExecutor executor) {
+    if (executor.isShutdown()) {
+      log.warn(name + " is shut down, task rejected: " + runnable);
+      return;
+    }
+    onRejected.run();
+    if (runnable instanceof BestEffort) {
+      log.warn(name + " saturated, best-effort task dropped: " + runnable);
+      return;
+    }
+
+    // wait for room in the queue
+    try {
+      if (executor.getQueue().offer(runnable, offerTimeoutMs, TimeUnit.MILLISECONDS)) {
+        return;
+      }
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+
+    // still saturated => run on caller thread rather than dropping it
+    log.error(name + " saturated, running task on caller thread: " + runnable);
+    runnable.run();
+  }
+}
@@ -0,0 +1,68 @@
+package com.samourai.whirlpool.server.utils;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/** Bounded cache with time-to-live. Oldest entries are evicted first. */
+public class ExpiringCache<K, V> {
+  private final int maxSize;
+  private final long ttlMs;
+  private final LinkedHashMap<K, CacheEntry<V>> entries;
+
+  public ExpiringCache(int maxSize, long ttlMs) {
+    this.maxSize = maxSize;
+    this.ttlMs = ttlMs;
+    this.entries =
+        new LinkedHashMap<K, CacheEntry<V>>() {
+          @Override
+          protected boolean removeEldestEntry(Map.Entry<K, CacheEntry<V>> eldest) {
+            return size() > ExpiringCache.this.maxSize;
+          }
+        };
+  }
+
+  public synchronized V get(K key) {
+    CacheEntry<V> entry = entries.get(key);
+    if (entry == null) {
+      return null;
+    }
+    if (System.currentTimeMillis() >= entry.expiresAt) {
+      // expired
+      entries.remove(key);
+      return null;
+    }
+    return entry.value;
+  }
+
+  public void put(K key, V value) {
+    put(key, value, ttlMs);
+  }
+
+  // put with a specific time-to-live
+  public synchronized void put(K key, V value, long entryTtlMs) {
+    entries.remove(key); // renew insertion order
+    entries.put(key, new CacheEntry<>(value, System.currentTimeMillis() + entryTtlMs));
+  }
+
+  public synchronized void remove(K key) {
+    entries.remove(key);
+  }
+
+  public synchronized void clear() {
+    entries.clear();
+  }
+
+  public synchronized int size() {
+    return entries.size();
+  }
+
+  private static class CacheEntry<V> {
+    private final V value;
+    private final long expiresAt;
+
+    CacheEntry(V value, long expiresAt) {
+      this.value = value;
+      this.expiresAt = expiresAt;
+    }
+  }
+}
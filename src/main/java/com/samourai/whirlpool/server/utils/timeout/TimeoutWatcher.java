@@ -1,75 +1,88 @@
 package com.samourai.whirlpool.server.utils.timeout;
 
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-public class TimeoutWatcher implements Runnable {
+public class TimeoutWatcher {
   private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
   private ITimeoutWatcherListener listener;
+  private ScheduledExecutorService scheduler; // may be shared by many watchers
+  private String name;
 
-  private long waitSince;
-  private boolean running;
-  private Thread thread;
+  private volatile long waitSince;
+  private volatile boolean running;
+  private ScheduledFuture<?> scheduledTimeout;
+  private final Object runLock = new Object(); // never run onTimeout() concurrently
 
-  public TimeoutWatcher(ITimeoutWatcherListener listener, String threadName) {
+  public TimeoutWatcher(
+      ITimeoutWatcherListener listener, ScheduledExecutorService scheduler, String name) {
     this.listener = listener;
+    this.scheduler = scheduler;
+    this.name = name;
 
     this.waitSince = System.currentTimeMillis();
     this.running = true;
+    this.scheduledTimeout = null;
 
     // run
-    this.thread = new Thread(this, threadName);
-    this.thread.start();
+    schedule();
   }
 
-  @Override
-  public synchronized void run() {
-    while (running) {
+  private void run() {
+    synchronized (runLock) {
+      if (!running) {
+        return;
+      }
 
       // did we wait enough?
       Long timeToWait = computeTimeToWait();
-      if (timeToWait == null) {
-        // no timer
+      if (timeToWait != null && timeToWait <= 0) {
+        // timer expired => notify
         try {
-          wait();
-        } catch (InterruptedException e) {
-        } // normal
-      } else {
-        if (timeToWait <= 0) {
-          // timer expired => notify
           listener.onTimeout(this);
-          // reset timer
-          waitSince = System.currentTimeMillis();
-        } else {
-          try {
-            Thread.sleep(timeToWait);
-          } catch (InterruptedException e) {
-          } // normal
+        } catch (Exception e) {
+          log.error("onTimeout failed: " + name, e);
         }
+        // reset timer
+        waitSince = System.currentTimeMillis();
       }
+      schedule();
     }
   }
 
+  private synchronized void schedule() {
+    // replace pending timeout
+    if (scheduledTimeout != null) {
+      scheduledTimeout.cancel(false);
+      scheduledTimeout = null;
+    }
+    if (!running) {
+      return;
+    }
+    Long timeToWait = computeTimeToWait();
+    if (timeToWait == null) {
+      // no timer, wait for resetTimeout()
+      return;
+    }
+    scheduledTimeout =
+        scheduler.schedule(() -> run(), Math.max(timeToWait, 0), TimeUnit.MILLISECONDS);
+  }
+
   public void stop() {
     if (log.isDebugEnabled()) {
-      log.debug("Stopping timeoutWatcher: " + thread.getName());
+      log.debug("Stopping timeoutWatcher: " + name);
     }
     running = false;
-    resumeThread();
+    schedule();
   }
 
   public void resetTimeout() {
     this.waitSince = System.currentTimeMillis();
-    resumeThread();
-  }
-
-  public void resumeThread() {
-    try {
-      this.thread.interrupt(); // resume thread from sleep
-    } catch (Exception e) {
-      log.error("", e);
-    }
+    schedule();
   }
 
   public void __simulateElapsedTime(long elapsedTimeSeconds) {
@@ -83,7 +96,7 @@ public class TimeoutWatcher implements Runnable {
               + (timeToWait != null ? timeToWait : "null")
               + "ms to wait)");
     }
-    resumeThread();
+    schedule();
   }
 
   public long computeElapsedTime() {
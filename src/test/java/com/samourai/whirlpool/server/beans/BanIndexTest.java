@@ -0,0 +1,65 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.whirlpool.server.persistence.to.BanTO;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.LinkedList;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BanIndexTest {
+  private static final long EXPIRATION_MS = 1000 * 1000;
+
+  @Test
+  public void load() throws Exception {
+    BanIndex banIndex = new BanIndex();
+    Assertions.assertFalse(banIndex.isLoaded());
+
+    banIndex.startSync();
+    banIndex.load(Arrays.asList(computeBan(1, "foo"), computeBan(2, "bar")));
+    Assertions.assertTrue(banIndex.isLoaded());
+    Assertions.assertEquals(2, banIndex.getSize());
+    Assertions.assertEquals(1, banIndex.find("foo", now()).size());
+
+    // reload replaces index
+    banIndex.startSync();
+    banIndex.load(Arrays.asList(computeBan(2, "bar")));
+    Assertions.assertEquals(1, banIndex.getSize());
+    Assertions.assertTrue(banIndex.find("foo", now()).isEmpty());
+  }
+
+  @Test
+  public void load_keepsBansAddedDuringSync() throws Exception {
+    BanIndex banIndex = new BanIndex();
+    banIndex.load(new LinkedList<>());
+
+    // ban saved while querying db => not in query results
+    banIndex.startSync();
+    BanTO added = computeBan(1, "foo");
+    banIndex.add(added);
+    BanTO addedAndQueried = computeBan(2, "bar");
+    banIndex.add(addedAndQueried);
+    banIndex.load(Arrays.asList(addedAndQueried, computeBan(3, "other")));
+
+    // re-applied once
+    Assertions.assertEquals(3, banIndex.getSize());
+    Assertions.assertEquals(1, banIndex.find("foo", now()).size());
+    Assertions.assertEquals(1, banIndex.find("bar", now()).size());
+
+    // not re-applied on next sync
+    banIndex.startSync();
+    banIndex.load(new LinkedList<>());
+    Assertions.assertEquals(0, banIndex.getSize());
+  }
+
+  private BanTO computeBan(long id, String identifier) {
+    Timestamp expiration = new Timestamp(System.currentTimeMillis() + EXPIRATION_MS);
+    BanTO banTO = new BanTO(identifier, expiration, null, null);
+    banTO.setId(id);
+    return banTO;
+  }
+
+  private Timestamp now() {
+    return new Timestamp(System.currentTimeMillis());
+  }
+}
@@ -0,0 +1,60 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.tools.AbstractBenchmark;
+import java.util.Collection;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Filtering mix-sized input collections: parallelStream (legacy) vs sequential stream. Finding an
+ * input by address: linear scan (legacy) vs index.
+ */
+public class InputPoolBenchmark extends AbstractBenchmark {
+  @Param({"5", "20", "100", "10000"})
+  private int nbInputs;
+
+  private InputPool inputPool;
+  private String address;
+
+  @Setup
+  public void setup() {
+    inputPool = new InputPool();
+    for (int i = 0; i < nbInputs; i++) {
+      String hash = String.format("%064x", i);
+      TxOutPoint outPoint = new TxOutPoint(hash, 0, 1000000, 10, new byte[] {}, "address" + i);
+      RegisteredInput registeredInput =
+          new RegisteredInput("0.01btc", "user" + i, i % 2 == 0, outPoint, null, null, null);
+      inputPool.register(registeredInput);
+    }
+    address = "address" + (nbInputs / 2);
+  }
+
+  @Benchmark
+  public Collection<RegisteredInput> getListByLiquidity_parallelStream() {
+    return inputPool._getInputs().parallelStream()
+        .filter(input -> input.isLiquidity())
+        .collect(Collectors.toList());
+  }
+
+  @Benchmark
+  public Collection<RegisteredInput> getListByLiquidity() {
+    return inputPool.getListByLiquidity(true);
+  }
+
+  @Benchmark
+  public Optional<RegisteredInput> findByAddress_scan() {
+    String addressLower = address.toLowerCase();
+    return inputPool._getInputs().stream()
+        .filter(input -> addressLower.equals(input.getOutPoint().getToAddress().toLowerCase()))
+        .findFirst();
+  }
+
+  @Benchmark
+  public Optional<RegisteredInput> findByAddress() {
+    return inputPool.findByAddress(address);
+  }
+}
@@ -0,0 +1,186 @@
+package com.samourai.whirlpool.server.beans;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.samourai.soroban.client.endpoint.meta.typed.SorobanItemTyped;
+import com.samourai.wallet.bip47.rpc.PaymentCode;
+import com.samourai.whirlpool.protocol.soroban.payload.registerInput.RegisterInputRequest;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import com.samourai.whirlpool.server.services.RegisterInputService;
+import java.lang.invoke.MethodHandles;
+import java.util.Arrays;
+import java.util.List;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.AsyncTaskExecutor;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class InputPoolQueueTest extends AbstractIntegrationTest {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Autowired private RegisterInputService realRegisterInputService;
+
+  private Pool pool;
+  private InputPoolQueue queue;
+  private RegisterInputService registerInputService;
+  private TxOutPoint outPoint;
+  private SorobanItemTyped sorobanItem;
+
+  @BeforeEach
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    pool = __getCurrentMix().getPool();
+    queue = new InputPoolQueue(pool, false, whirlpoolApiCoordinator);
+    outPoint = generateOutPoint(pool.computePremixBalanceMin(false));
+    sorobanItem = mockSorobanItem(testUtils.generatePaymentCode(), outPoint);
+
+    registerInputService = Mockito.mock(RegisterInputService.class);
+    AsyncTaskExecutor validationExecutor = realRegisterInputService.getValidationExecutor();
+    Mockito.when(registerInputService.getValidationExecutor()).thenReturn(validationExecutor);
+    mockValidation(0);
+    mockRevalidation(true, true);
+  }
+
+  @Test
+  public void refresh_cacheMiss() throws Exception {
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+
+    // validated
+    verifyValidations(1);
+    Assertions.assertEquals(1, queue._getInputsSoroban().size());
+    Assertions.assertEquals(outPoint, queue._getInputsSoroban().iterator().next().getOutPoint());
+  }
+
+  @Test
+  public void refresh_cacheHit() throws Exception {
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(1);
+
+    // same request => revalidated from cache
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(1);
+    Assertions.assertEquals(1, queue._getInputsSoroban().size());
+    Assertions.assertEquals(outPoint, queue._getInputsSoroban().iterator().next().getOutPoint());
+  }
+
+  @Test
+  public void refresh_cacheEvictedWhenSpentOrBanned() throws Exception {
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(1);
+
+    // spent or banned since => full validation
+    mockRevalidation(true, false);
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(2);
+
+    // full validation result is cached again
+    mockRevalidation(true, true);
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(2);
+  }
+
+  @Test
+  public void refresh_cacheEvictedWhenInvalidBalanceOrConfirmations() throws Exception {
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(1);
+
+    // in-memory checks failed => full validation
+    mockRevalidation(false, true);
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(2);
+    Mockito.verify(registerInputService, Mockito.times(1))
+        .revalidateRegisteredInputs(Mockito.any());
+  }
+
+  @Test
+  public void refresh_validationTimeout() throws Exception {
+    queue.__setValidationTimeoutMs(100);
+    mockValidation(2000);
+
+    long start = System.currentTimeMillis();
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+
+    // skipped after timeout, not cached
+    Assertions.assertTrue(System.currentTimeMillis() - start < 1500);
+    Assertions.assertTrue(queue._getInputsSoroban().isEmpty());
+
+    mockValidation(0);
+    queue.refreshSorobanInputs(Arrays.asList(sorobanItem), registerInputService);
+    verifyValidations(2);
+    Assertions.assertEquals(1, queue._getInputsSoroban().size());
+  }
+
+  private SorobanItemTyped mockSorobanItem(PaymentCode sender, TxOutPoint outPoint)
+      throws Exception {
+    RegisterInputRequest request = new RegisterInputRequest();
+    request.utxoHash = outPoint.getHash();
+    request.utxoIndex = outPoint.getIndex();
+    request.signature = "signature";
+    request.blockHeight = 0;
+
+    SorobanItemTyped item = Mockito.mock(SorobanItemTyped.class);
+    Mockito.when(item.read(RegisterInputRequest.class)).thenReturn(request);
+    Mockito.when(item.getMetaSender()).thenReturn(sender);
+    return item;
+  }
+
+  private void mockValidation(long delayMs) throws Exception {
+    Mockito.when(
+            registerInputService.validateRegisterInputRequest(
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.any(),
+                Mockito.anyLong(),
+                Mockito.anyBoolean(),
+                Mockito.any(),
+                Mockito.anyInt(),
+                Mockito.any()))
+        .thenAnswer(
+            invocation -> {
+              Thread.sleep(delayMs);
+              return new RegisteredInput(
+                  pool.getPoolId(),
+                  invocation.getArgument(1),
+                  false,
+                  outPoint,
+                  null,
+                  null,
+                  invocation.getArgument(8));
+            });
+  }
+
+  private void mockRevalidation(boolean inMemoryValid, boolean unspentAndNotBanned)
+      throws Exception {
+    Mockito.when(
+            registerInputService.revalidateRegisterInputRequest(
+                Mockito.any(), Mockito.any(), Mockito.anyBoolean(), Mockito.anyInt()))
+        .thenReturn(inMemoryValid);
+    List<Boolean> results = Arrays.asList(unspentAndNotBanned);
+    Mockito.when(registerInputService.revalidateRegisteredInputs(Mockito.any()))
+        .thenReturn(results);
+  }
+
+  private void verifyValidations(int times) throws Exception {
+    Mockito.verify(registerInputService, Mockito.times(times))
+        .validateRegisterInputRequest(
+            Mockito.any(),
+            Mockito.any(),
+            Mockito.any(),
+            Mockito.any(),
+            Mockito.anyLong(),
+            Mockito.anyBoolean(),
+            Mockito.any(),
+            Mockito.anyInt(),
+            Mockito.any());
+  }
+}
@@ -0,0 +1,124 @@
+package com.samourai.whirlpool.server.beans;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class InputPoolTest extends AbstractIntegrationTest {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+  private static final int NB_INPUTS = 10000;
+
+  private InputPool inputPool;
+  private List<RegisteredInput> inputs;
+
+  @BeforeEach
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+
+    inputPool = new InputPool();
+    inputs = new ArrayList<>();
+    for (int i = 0; i < NB_INPUTS; i++) {
+      RegisteredInput registeredInput =
+          new RegisteredInput(
+              "poolId", "user" + i, false, generateOutPoint(1000000), false, null, null);
+      inputs.add(registeredInput);
+      inputPool.register(registeredInput);
+    }
+  }
+
+  @Test
+  public void find() throws Exception {
+    RegisteredInput input = inputs.get(1234);
+    TxOutPoint outPoint = input.getOutPoint();
+
+    Assertions.assertEquals(NB_INPUTS, inputPool.getSize());
+    Assertions.assertSame(input, inputPool.findByUsername("user1234").get());
+    Assertions.assertSame(input, inputPool.findByOutPoint(outPoint).get());
+    Assertions.assertSame(
+        input, inputPool.findByAddress(outPoint.getToAddress().toUpperCase()).get());
+    Assertions.assertFalse(inputPool.findByUsername("dummy").isPresent());
+
+    // remove
+    Assertions.assertSame(input, inputPool.removeByUsername("user1234").get());
+    Assertions.assertFalse(inputPool.findByUsername("user1234").isPresent());
+    Assertions.assertFalse(inputPool.findByOutPoint(outPoint).isPresent());
+    Assertions.assertFalse(inputPool.findByAddress(outPoint.getToAddress()).isPresent());
+
+    // register again
+    inputPool.register(input);
+    Assertions.assertSame(input, inputPool.findByOutPoint(outPoint).get());
+
+    // removeRandom
+    RegisteredInput removed = inputPool.removeRandom(i -> i.getUsername().equals("user1234")).get();
+    Assertions.assertSame(input, removed);
+    Assertions.assertFalse(inputPool.findByAddress(outPoint.getToAddress()).isPresent());
+
+    // clear
+    inputPool.clear();
+    Assertions.assertFalse(inputPool.findByUsername("user1").isPresent());
+    Assertions.assertFalse(inputPool.findByOutPoint(inputs.get(1).getOutPoint()).isPresent());
+  }
+
+  @Test
+  public void removeRandom() throws Exception {
+    AtomicInteger nbTests = new AtomicInteger(0);
+
+    // fill a 5-inputs mix: only tests a few candidates instead of the whole queue
+    long since = System.nanoTime();
+    for (int i = 0; i < 5; i++) {
+      Optional<RegisteredInput> inputOpt =
+          inputPool.removeRandom(
+              input -> {
+                nbTests.incrementAndGet();
+                return true;
+              });
+      Assertions.assertTrue(inputOpt.isPresent());
+    }
+    long elapsed = System.nanoTime() - since;
+    log.info("removeRandom x5 on " + NB_INPUTS + " inputs: " + (elapsed / 1000) + "us");
+    Assertions.assertEquals(5, nbTests.get());
+    Assertions.assertEquals(NB_INPUTS - 5, inputPool.getSize());
+
+    // rejected inputs are tested again after all candidates were consumed
+    Assertions.assertFalse(inputPool.removeRandom(input -> false).isPresent());
+    Assertions.assertTrue(inputPool.removeRandom(input -> true).isPresent());
+
+    // new inputs are candidates
+    RegisteredInput newInput =
+        new RegisteredInput(
+            "poolId", "newUser", false, generateOutPoint(1000000), false, null, null);
+    inputPool.register(newInput);
+    Assertions.assertSame(
+        newInput, inputPool.removeRandom(input -> input.getUsername().equals("newUser")).get());
+  }
+
+  @Test
+  public void findByAddress_sameAsScan() throws Exception {
+    // see InputPoolBenchmark for performances
+    for (int i = 0; i < 1000; i++) {
+      String address = inputs.get(i).getOutPoint().getToAddress();
+      String addressLower = address.toLowerCase();
+      Optional<RegisteredInput> scanned =
+          inputPool._getInputs().stream()
+              .filter(
+                  input -> addressLower.equals(input.getOutPoint().getToAddress().toLowerCase()))
+              .findFirst();
+      Assertions.assertTrue(scanned.isPresent());
+      Assertions.assertSame(scanned.get(), inputPool.findByAddress(address).get());
+    }
+  }
+}
@@ -0,0 +1,84 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.whirlpool.server.tools.AbstractBenchmark;
+import java.math.BigInteger;
+import java.security.SecureRandom;
+import java.util.concurrent.TimeUnit;
+import org.bouncycastle.crypto.AsymmetricCipherKeyPair;
+import org.bouncycastle.crypto.digests.SHA256Digest;
+import org.bouncycastle.crypto.engines.RSAEngine;
+import org.bouncycastle.crypto.generators.RSAKeyPairGenerator;
+import org.bouncycastle.crypto.params.RSAKeyGenerationParameters;
+import org.bouncycastle.crypto.signers.PSSSigner;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Blind signing and PSS verification of bordereaux: new engine per call (legacy) vs
+ * MixCryptoContext.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MixCryptoContextBenchmark extends AbstractBenchmark {
+  @Param({"2048", "3072"})
+  private int keySize;
+
+  @Param({"false", "true"})
+  private boolean blinding;
+
+  private AsymmetricCipherKeyPair keyPair;
+  private MixCryptoContext cryptoContext;
+  private byte[] blindedBordereau;
+  private byte[] bordereau;
+  private byte[] signedBordereau;
+
+  @Setup
+  public void setup() throws Exception {
+    SecureRandom secureRandom = new SecureRandom();
+    RSAKeyPairGenerator generator = new RSAKeyPairGenerator();
+    generator.init(
+        new RSAKeyGenerationParameters(new BigInteger("10001", 16), secureRandom, keySize, 80));
+    keyPair = generator.generateKeyPair();
+    cryptoContext = new MixCryptoContext(keyPair, blinding);
+
+    // any value lower than modulus
+    blindedBordereau = new BigInteger(keySize - 1, secureRandom).toByteArray();
+
+    // PSS signed bordereau
+    bordereau = new byte[30];
+    secureRandom.nextBytes(bordereau);
+    PSSSigner signer = new PSSSigner(new RSAEngine(), new SHA256Digest(), 32);
+    signer.init(true, keyPair.getPrivate());
+    signer.update(bordereau, 0, bordereau.length);
+    signedBordereau = signer.generateSignature();
+  }
+
+  @Benchmark
+  public byte[] sign_newEngine() {
+    RSAEngine engine = new RSAEngine();
+    engine.init(true, keyPair.getPrivate());
+    return engine.processBlock(blindedBordereau, 0, blindedBordereau.length);
+  }
+
+  @Benchmark
+  public byte[] sign_cryptoContext() {
+    return cryptoContext.signBlindedOutput(blindedBordereau);
+  }
+
+  @Benchmark
+  public boolean verify_newVerifier() {
+    PSSSigner signer = new PSSSigner(new RSAEngine(), new SHA256Digest(), 32);
+    signer.init(false, keyPair.getPublic());
+    signer.update(bordereau, 0, bordereau.length);
+    return signer.verifySignature(signedBordereau);
+  }
+
+  @Benchmark
+  public boolean verify_cryptoContext() {
+    return cryptoContext.verifyUnblindedSignedBordereau(bordereau, signedBordereau);
+  }
+}
@@ -0,0 +1,89 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.wallet.segwit.SegwitAddress;
+import com.samourai.wallet.segwit.bech32.Bech32UtilGeneric;
+import com.samourai.wallet.util.TxUtil;
+import com.samourai.whirlpool.client.mix.handler.PremixHandler;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.tools.AbstractBenchmark;
+import java.util.concurrent.TimeUnit;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionOutput;
+import org.bitcoinj.core.TransactionWitness;
+import org.bitcoinj.params.TestNet3Params;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Setup;
+
+/**
+ * Verifying one signature of a mix tx: TxUtil (legacy, full BIP143 preimage for each input) vs
+ * MixSigningContext (cached midstates).
+ */
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class MixSigningContextBenchmark extends AbstractBenchmark {
+  private static final long VALUE = 1000170;
+
+  @Param({"10", "50", "100"})
+  private int nbInputs;
+
+  private Transaction tx;
+  private MixSigningContext signingContext;
+  private TxOutPoint txOutPoint; // last input
+  private TransactionWitness witness;
+
+  @Setup
+  public void setup() throws Exception {
+    NetworkParameters params = TestNet3Params.get();
+    Bech32UtilGeneric bech32Util = Bech32UtilGeneric.getInstance();
+    tx = new Transaction(params);
+    ECKey ecKey = null;
+    for (int i = 0; i < nbInputs; i++) {
+      // inputs
+      ecKey = new ECKey();
+      String address = new SegwitAddress(ecKey.getPubKey(), params).getBech32AsString();
+      String hash = String.format("%064x", i + 1);
+      TransactionOutPoint outPoint =
+          new TransactionOutPoint(params, 0, Sha256Hash.wrap(hash), Coin.valueOf(VALUE));
+      tx.addInput(new TransactionInput(params, null, new byte[] {}, outPoint, Coin.valueOf(VALUE)));
+      byte[] scriptBytes = bech32Util.getTransactionOutput(address, VALUE, params).getScriptBytes();
+      txOutPoint = new TxOutPoint(hash, 0, VALUE, 10, scriptBytes, address);
+
+      // outputs
+      String receiveAddress =
+          new SegwitAddress(new ECKey().getPubKey(), params).getBech32AsString();
+      TransactionOutput output = bech32Util.getTransactionOutput(receiveAddress, 1000000, params);
+      tx.addOutput(output);
+    }
+    signingContext = new MixSigningContext(tx);
+
+    // sign last input
+    int inputIndex = nbInputs - 1;
+    Transaction txToSign = new Transaction(params, tx.bitcoinSerialize());
+    new PremixHandler(txOutPoint.toUtxoWithBalance(), ecKey, "userPreHash")
+        .signTransaction(txToSign, inputIndex, params);
+    witness = txToSign.getWitness(inputIndex);
+    tx.setWitness(inputIndex, witness);
+  }
+
+  @Benchmark
+  public int verifySignInput() throws Exception {
+    TxUtil txUtil = TxUtil.getInstance();
+    Integer inputIndex = txUtil.findInputIndex(tx, txOutPoint.getHash(), txOutPoint.getIndex());
+    txUtil.verifySignInput(tx, inputIndex, txOutPoint.getValue(), txOutPoint.getScriptBytes());
+    return inputIndex;
+  }
+
+  @Benchmark
+  public Boolean signingContext() throws Exception {
+    Integer inputIndex = signingContext.findInputIndex(txOutPoint.getHash(), txOutPoint.getIndex());
+    return signingContext.verifyWitness(
+        inputIndex, witness, txOutPoint.getValue(), txOutPoint.getScriptBytes());
+  }
+}
@@ -0,0 +1,146 @@
+package com.samourai.whirlpool.server.beans;
+
+import com.samourai.wallet.segwit.SegwitAddress;
+import com.samourai.wallet.segwit.bech32.Bech32UtilGeneric;
+import com.samourai.wallet.util.TxUtil;
+import com.samourai.whirlpool.client.mix.handler.PremixHandler;
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import java.util.ArrayList;
+import java.util.List;
+import org.bitcoinj.core.Coin;
+import org.bitcoinj.core.ECKey;
+import org.bitcoinj.core.NetworkParameters;
+import org.bitcoinj.core.Sha256Hash;
+import org.bitcoinj.core.Transaction;
+import org.bitcoinj.core.TransactionInput;
+import org.bitcoinj.core.TransactionOutPoint;
+import org.bitcoinj.core.TransactionWitness;
+import org.bitcoinj.params.TestNet3Params;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class MixSigningContextTest {
+  private static final NetworkParameters params = TestNet3Params.get();
+  private static final int NB_INPUTS = 5;
+  private static final long VALUE = 1000170;
+
+  private Bech32UtilGeneric bech32Util = Bech32UtilGeneric.getInstance();
+  private Transaction tx;
+  private List<ECKey> ecKeys;
+  private List<TxOutPoint> txOutPoints;
+  private MixSigningContext signingContext;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    tx = new Transaction(params);
+    ecKeys = new ArrayList<>();
+    txOutPoints = new ArrayList<>();
+    for (int i = 0; i < NB_INPUTS; i++) {
+      // inputs
+      ECKey ecKey = new ECKey();
+      String address = new SegwitAddress(ecKey.getPubKey(), params).getBech32AsString();
+      String hash = String.format("%064x", i + 1);
+      TransactionOutPoint outPoint =
+          new TransactionOutPoint(params, i, Sha256Hash.wrap(hash), Coin.valueOf(VALUE));
+      tx.addInput(new TransactionInput(params, null, new byte[] {}, outPoint, Coin.valueOf(VALUE)));
+      byte[] scriptBytes = bech32Util.getTransactionOutput(address, VALUE, params).getScriptBytes();
+      ecKeys.add(ecKey);
+      txOutPoints.add(new TxOutPoint(hash, i, VALUE, 10, scriptBytes, address));
+
+      // outputs
+      String receiveAddress =
+          new SegwitAddress(new ECKey().getPubKey(), params).getBech32AsString();
+      tx.addOutput(bech32Util.getTransactionOutput(receiveAddress, 1000000, params));
+    }
+    signingContext = new MixSigningContext(tx);
+  }
+
+  @Test
+  public void findInputIndex() throws Exception {
+    for (int i = 0; i < NB_INPUTS; i++) {
+      TxOutPoint txOutPoint = txOutPoints.get(i);
+      Assertions.assertEquals(
+          i, signingContext.findInputIndex(txOutPoint.getHash(), txOutPoint.getIndex()));
+    }
+    Assertions.assertNull(signingContext.findInputIndex(txOutPoints.get(0).getHash(), 1));
+  }
+
+  @Test
+  public void verifyWitness_valid() throws Exception {
+    for (int i = 0; i < NB_INPUTS; i++) {
+      TxOutPoint txOutPoint = txOutPoints.get(i);
+      TransactionWitness witness = sign(i, txOutPoint, ecKeys.get(i));
+      Assertions.assertTrue(
+          signingContext.verifyWitness(
+              i, witness, txOutPoint.getValue(), txOutPoint.getScriptBytes()));
+
+      // same result as TxUtil
+      tx.setWitness(i, witness);
+      TxUtil.getInstance()
+          .verifySignInput(tx, i, txOutPoint.getValue(), txOutPoint.getScriptBytes());
+    }
+  }
+
+  @Test
+  public void verifyWitness_invalid() throws Exception {
+    int inputIndex = 2;
+    TxOutPoint txOutPoint = txOutPoints.get(inputIndex);
+    ECKey ecKey = ecKeys.get(inputIndex);
+
+    // signed by wrong key
+    TransactionWitness wrongKeyWitness = sign(inputIndex, txOutPoint, new ECKey());
+    TransactionWitness witness = new TransactionWitness(2);
+    witness.setPush(0, wrongKeyWitness.getPush(0));
+    witness.setPush(1, ecKey.getPubKey());
+    Assertions.assertFalse(
+        signingContext.verifyWitness(
+            inputIndex, witness, txOutPoint.getValue(), txOutPoint.getScriptBytes()));
+
+    // signed for another input
+    TransactionWitness otherInputWitness = sign(inputIndex + 1, txOutPoint, ecKey);
+    Assertions.assertFalse(
+        signingContext.verifyWitness(
+            inputIndex, otherInputWitness, txOutPoint.getValue(), txOutPoint.getScriptBytes()));
+
+    // wrong value
+    TransactionWitness validWitness = sign(inputIndex, txOutPoint, ecKey);
+    Assertions.assertFalse(
+        signingContext.verifyWitness(
+            inputIndex, validWitness, txOutPoint.getValue() + 1, txOutPoint.getScriptBytes()));
+  }
+
+  @Test
+  public void verifyWitness_unsupported() throws Exception {
+    int inputIndex = 0;
+    TxOutPoint txOutPoint = txOutPoints.get(inputIndex);
+    TransactionWitness witness = sign(inputIndex, txOutPoint, ecKeys.get(inputIndex));
+
+    // scriptPubKey of another key
+    byte[] otherScriptPubKey = txOutPoints.get(1).getScriptBytes();
+    Assertions.assertNull(
+        signingContext.verifyWitness(
+            inputIndex, witness, txOutPoint.getValue(), otherScriptPubKey));
+
+    // not P2WPKH
+    byte[] p2pkhScriptPubKey = new byte[25];
+    Assertions.assertNull(
+        signingContext.verifyWitness(
+            inputIndex, witness, txOutPoint.getValue(), p2pkhScriptPubKey));
+
+    // unexpected witness
+    TransactionWitness singlePushWitness = new TransactionWitness(1);
+    singlePushWitness.setPush(0, witness.getPush(0));
+    Assertions.assertNull(
+        signingContext.verifyWitness(
+            inputIndex, singlePushWitness, txOutPoint.getValue(), txOutPoint.getScriptBytes()));
+  }
+
+  private TransactionWitness sign(int inputIndex, TxOutPoint txOutPoint, ECKey ecKey)
+      throws Exception {
+    Transaction txToSign = new Transaction(params, tx.bitcoinSerialize());
+    new PremixHandler(txOutPoint.toUtxoWithBalance(), ecKey, "userPreHash")
+        .signTransaction(txToSign, inputIndex, params);
+    return txToSign.getWitness(inputIndex);
+  }
+}
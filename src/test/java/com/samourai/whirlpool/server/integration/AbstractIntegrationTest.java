@@ -170,11 +170,14 @@ public abstract class AbstractIntegrationTest {
     messageSignUtil = MessageSignUtilGeneric.getInstance();
 
     dbService.__reset();
+    blameService.__reset();
     mixLimitsService = mixService.__getMixLimitsService();
     rpcClientService.resetMock();
+    blockchainDataService.__reset();
 
     configurePools(serverConfig.getMinerFees(), serverConfig.getPools());
     cacheService._reset();
+    inputValidationService.__reset();
 
     HD_Wallet hdw84 =
         walletFactory.restoreWallet(
@@ -9,6 +9,7 @@ import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
 import com.samourai.whirlpool.server.persistence.repositories.BanRepository;
 import com.samourai.whirlpool.server.persistence.repositories.BlameRepository;
 import com.samourai.whirlpool.server.persistence.to.BanTO;
+import com.samourai.whirlpool.server.persistence.to.BlameTO;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
 import java.sql.Timestamp;
@@ -136,6 +137,58 @@ public class BanServiceTest extends AbstractIntegrationTest {
         banService.findActiveBan(UTXO_HASH, UTXO_INDEX, afterExpiration).isPresent());
   }
 
+  @Test
+  public void blame_and_ban_afterRestart() throws Exception {
+    // server.ban.blames = 2
+    // server.ban.period = 1OO
+    Mix mix = __getCurrentMix();
+
+    final String UTXO_HASH = "cb2fad88ae75fdabb2bcc131b2f4f0ff2c82af22b6dd804dc341900195fb6187";
+    final long UTXO_INDEX = 2;
+    RegisteredInput registeredInput =
+        testUtils.computeConfirmedInput(mix.getPool().getPoolId(), UTXO_HASH, UTXO_INDEX, false);
+    String identifier = Utils.computeBlameIdentitifer(registeredInput);
+
+    // expired blame from db is ignored
+    BlameTO expiredBlame = dbService.saveBlame(identifier, BlameReason.DISCONNECT, "mix0", null);
+    expiredBlame.__setCreated(new Timestamp(System.currentTimeMillis() - 200 * 1000));
+    blameRepository.save(expiredBlame);
+
+    // blame 1/2 from db (before restart)
+    dbService.saveBlame(identifier, BlameReason.DISCONNECT, "mix1", null);
+    Assertions.assertFalse(banService.findActiveBan(UTXO_HASH, UTXO_INDEX).isPresent());
+
+    // blame 2/2 => banned
+    blameService.blame(registeredInput, BlameReason.DISCONNECT, mix);
+    Assertions.assertTrue(banService.findActiveBan(UTXO_HASH, UTXO_INDEX).isPresent());
+  }
+
+  @Test
+  public void blame_syncFromOtherNodes() throws Exception {
+    // server.ban.blames = 2
+    // server.ban.period = 1OO
+    Mix mix = __getCurrentMix();
+
+    final String UTXO_HASH = "cb2fad88ae75fdabb2bcc131b2f4f0ff2c82af22b6dd804dc341900195fb6187";
+    final long UTXO_INDEX = 2;
+    RegisteredInput registeredInput =
+        testUtils.computeConfirmedInput(mix.getPool().getPoolId(), UTXO_HASH, UTXO_INDEX, false);
+    String identifier = Utils.computeBlameIdentitifer(registeredInput);
+
+    // blame 1/2 => cached
+    blameService.blame(registeredInput, BlameReason.DISCONNECT, mix);
+    Assertions.assertEquals(1, blameService.__getRecentBlames(identifier).size());
+
+    // blame from another node => picked up on sync (may already be by scheduled sync)
+    dbService.saveBlame(identifier, BlameReason.DISCONNECT, "mix1", null);
+    blameService.syncRecentBlames();
+    Assertions.assertEquals(2, blameService.__getRecentBlames(identifier).size());
+
+    // not duplicated on next sync
+    blameService.syncRecentBlames();
+    Assertions.assertEquals(2, blameService.__getRecentBlames(identifier).size());
+  }
+
   @Test
   public void ban_recidivism() throws Exception {
     // server.ban.blames = 2
@@ -170,6 +223,26 @@ public class BanServiceTest extends AbstractIntegrationTest {
         banTO3.getDuration()); // duration doubled
   }
 
+  @Test
+  public void banIndex_syncFromDb() throws Exception {
+    final String UTXO_HASH = "cb2fad88ae75fdabb2bcc131b2f4f0ff2c82af22b6dd804dc341900195fb6187";
+    final long UTXO_INDEX = 2;
+    String identifier = Utils.computeBlameIdentitifer(UTXO_HASH, UTXO_INDEX, false);
+
+    // ban saved by another node
+    Timestamp expiration = new Timestamp(System.currentTimeMillis() + EXPIRATION_MS);
+    banRepository.save(new BanTO(identifier, expiration, null, "otherNode"));
+
+    // synchronized from db (may already be by scheduled sync)
+    dbService.syncBanIndex();
+    Assertions.assertTrue(banService.findActiveBan(UTXO_HASH, UTXO_INDEX).isPresent());
+
+    // ban disabled after expiration
+    Timestamp afterExpiration = new Timestamp(expiration.getTime() + 1000);
+    Assertions.assertFalse(
+        banService.findActiveBan(UTXO_HASH, UTXO_INDEX, afterExpiration).isPresent());
+  }
+
   // PERMANENT BAN
 
   /*@Test
@@ -49,4 +49,35 @@ public class BlockchainDataServiceTest extends AbstractIntegrationTest {
         "010000000001033dfcfe7fb293d1b6f41b8894f896b3aaceb7f9c023061f533f7321def7929b41020000006b483045022100fd69af97109ff7f5b6aa656e8401d1f00d136ec2577d20b01b2f5154ef41f5420220205a62c372bec510caf800b2a996cc7bf0f52fc0d17fc871dd5c911bb495754501210206e398443b1468e028ef785281fdb39565d8f5dd5e29b9b8cf3fe6efb93062bafdffffff2b40dc90d245e3c23e1b39bdf17b5d1010919fd4f244c9878d4ccd217eef737c000000001716001485cafa3f554071a35f571027b8834b33b82ec056fdffffffc45432e67a0adad659f7249472756293717d423360b0c9849e6809759c03da84020000006a4730440220024e6febc89c6e313f8b297f1aec87ff057128c253f7e352b1635c3c88cf504002206c51f50d1dd4fa4c689c24d2c2bb35ee1d5cb2f99602e0aea9ffdc37092c062b012102632f214738f6f7708e201f6a299d6351eb87caf6b86ce94187ea39c98d18a60bfdffffff04e947e1020000000017a9148249408a629e70e42349addd3e36888a0ea1578287cacbf505000000001976a9143cff5d8af264dcbbc84bae87a209d3efce31734388ac1008f6050000000016001493045495bc69c0d6a3c9e5285c8969f23c79cf951008f60500000000160014d798ca9c7e764f5186887f0b381a50b7122c668b00024830450221009a870dec25f0794b91e594f21a88ea68e9ae9eb8824e54ce2cedd9c9ebe2ed7202203de75af50fe318738ca0e189835b66a5bc3f392d4a307a8c2cd29f780b19e57801210376edd2a70c6eba6b32f35965db0ed9c5502c0876b0600e754f9da9511ab80bca0000000000",
         TxUtil.getInstance().getTxHex(tx.getTx()));
   }
+
+  @Test
+  public void getRpcTransaction_cache() {
+    String txid = "96cebec97115f59339a9053b6084aab5869adeefdbdbe974b74bfdbf3b8eaac3";
+    int confirmations = MockRpcClientServiceImpl.MOCK_TX_CONFIRMATIONS;
+    blockchainDataService.__setBlockHeight(1000);
+
+    // fetch & cache
+    RpcTransaction tx = blockchainDataService.getRpcTransaction(txid).get();
+    Assertions.assertEquals(confirmations, tx.getConfirmations());
+    Assertions.assertEquals(1, blockchainDataService.getRpcTxCacheSize());
+
+    // cached: confirmations recomputed from blockHeight
+    blockchainDataService.__setBlockHeight(1005);
+    RpcTransaction txCached = blockchainDataService.getRpcTransaction(txid).get();
+    Assertions.assertSame(tx.getTx(), txCached.getTx());
+    Assertions.assertEquals(confirmations + 5, txCached.getConfirmations());
+
+    // reorg => refetch
+    blockchainDataService.__setBlockHeight(999);
+    RpcTransaction txRefetched = blockchainDataService.getRpcTransaction(txid).get();
+    Assertions.assertNotSame(tx.getTx(), txRefetched.getTx());
+    Assertions.assertEquals(confirmations, txRefetched.getConfirmations());
+
+    // unconfirmed txs are not cached
+    blockchainDataService.__reset();
+    rpcClientService.mock(txid, TxUtil.getInstance().getTxHex(tx.getTx()), 0);
+    Assertions.assertEquals(
+        0, blockchainDataService.getRpcTransaction(txid).get().getConfirmations());
+    Assertions.assertEquals(0, blockchainDataService.getRpcTxCacheSize());
+  }
 }
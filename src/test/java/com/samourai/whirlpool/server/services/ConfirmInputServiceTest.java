@@ -12,8 +12,15 @@ import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.integration.AbstractMixIntegrationTest;
 import java.lang.invoke.MethodHandles;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 import org.bitcoinj.core.ECKey;
 import org.bouncycastle.crypto.params.RSABlindingParameters;
+import org.bouncycastle.crypto.params.RSAKeyParameters;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -324,4 +331,111 @@ public class ConfirmInputServiceTest extends AbstractMixIntegrationTest {
     testUtils.assertPool(1, 0, pool);
     Assertions.assertTrue(pool.getMustMixQueue().findByUsername("mustMix1").isPresent());
   }
+
+  @Test
+  public void confirmInput_shouldRejectMalformedBordereau_soroban() throws Exception {
+    Mix mix = __nextMix(1, 0, 2, __getCurrentPoolId());
+    BigInteger modulus = ((RSAKeyParameters) mix.getKeyPair().getPublic()).getModulus();
+
+    // too long
+    RegisteredInput registeredInput = registerSorobanConfirmingInput(mix, "user1");
+    byte[] tooLong = new byte[(modulus.bitLength() + 7) / 8 + 1];
+    tooLong[0] = 1;
+    IllegalInputException e =
+        Assertions.assertThrows(
+            IllegalInputException.class,
+            () -> confirmInputService.confirmInput(mix, registeredInput, tooLong, "userHash1"));
+    Assertions.assertEquals(WhirlpoolErrorCode.INVALID_ARGUMENT, e.getErrorCode());
+
+    // not lower than modulus
+    byte[] tooHigh = modulus.toByteArray();
+    e =
+        Assertions.assertThrows(
+            IllegalInputException.class,
+            () -> confirmInputService.confirmInput(mix, registeredInput, tooHigh, "userHash1"));
+    Assertions.assertEquals(WhirlpoolErrorCode.INVALID_ARGUMENT, e.getErrorCode());
+
+    // slot was not reserved
+    Assertions.assertEquals(0, mix.getNbInputs());
+    Assertions.assertNull(registeredInput.getSignedBordereau());
+  }
+
+  @Test
+  public void confirmInput_shouldConfirmConcurrently_soroban() throws Exception {
+    int nbInputs = 4;
+    Mix mix = __nextMix(1, 0, nbInputs, __getCurrentPoolId());
+    RSABlindingParameters blindingParams = computeBlindingParams(mix);
+
+    List<RegisteredInput> registeredInputs = new ArrayList<>();
+    for (int i = 0; i < nbInputs; i++) {
+      registeredInputs.add(registerSorobanConfirmingInput(mix, "user" + i));
+    }
+
+    // CONFIRM_INPUT concurrently
+    ExecutorService executor = Executors.newFixedThreadPool(nbInputs);
+    try {
+      List<Future<byte[]>> futures = new ArrayList<>();
+      for (int i = 0; i < nbInputs; i++) {
+        RegisteredInput registeredInput = registeredInputs.get(i);
+        byte[] blindedBordereau =
+            clientCryptoService.blind(ClientUtils.generateBordereau(), blindingParams);
+        String userHash = "userHash" + i;
+        futures.add(
+            executor.submit(
+                () ->
+                    confirmInputService.confirmInput(
+                        mix, registeredInput, blindedBordereau, userHash)));
+      }
+      for (int i = 0; i < nbInputs; i++) {
+        byte[] signedBordereau = futures.get(i).get();
+        Assertions.assertArrayEquals(signedBordereau, registeredInputs.get(i).getSignedBordereau());
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+
+    // VERIFY
+    Assertions.assertEquals(nbInputs, mix.getNbInputs());
+    Assertions.assertFalse(mix.hasInputsSigningBordereau());
+    Assertions.assertTrue(mixService.isConfirmInputReady(mix));
+  }
+
+  @Test
+  public void confirmInput_shouldWaitForPendingSignature_soroban() throws Exception {
+    Mix mix = __nextMix(1, 0, 1, __getCurrentPoolId());
+    RegisteredInput registeredInput = registerSorobanConfirmingInput(mix, "user1");
+    byte[] blindedBordereau =
+        clientCryptoService.blind(ClientUtils.generateBordereau(), computeBlindingParams(mix));
+    byte[] signedBordereau =
+        confirmInputService.confirmInput(mix, registeredInput, blindedBordereau, "userHash1");
+    Assertions.assertTrue(mixService.isConfirmInputReady(mix));
+
+    // simulate slot reserved, bordereau still signing
+    registeredInput.setSignedBordereau(null);
+    Assertions.assertTrue(mix.hasInputsSigningBordereau());
+    Assertions.assertFalse(mixService.isConfirmInputReady(mix));
+
+    // duplicate request replies "in progress"
+    IllegalInputException e =
+        Assertions.assertThrows(
+            IllegalInputException.class,
+            () -> confirmInputService.getSignedBordereau(registeredInput));
+    Assertions.assertEquals(WhirlpoolErrorCode.INPUT_ALREADY_REGISTERED, e.getErrorCode());
+    Assertions.assertEquals("Input confirmation in progress", e.getMessage());
+
+    // signed
+    registeredInput.setSignedBordereau(signedBordereau);
+    Assertions.assertArrayEquals(
+        signedBordereau, confirmInputService.getSignedBordereau(registeredInput));
+    Assertions.assertTrue(mixService.isConfirmInputReady(mix));
+  }
+
+  private RegisteredInput registerSorobanConfirmingInput(Mix mix, String username)
+      throws Exception {
+    SorobanInput sorobanInput = generateSorobanInput(mix.getPool().getPoolId(), false);
+    registerInput(mix, username, 999, false, sorobanInput);
+    PaymentCode sender = sorobanInput.getSender();
+    return mix.removeConfirmingInputBySender(sender)
+        .orElseThrow(() -> new Exception("Confirming input not found: " + sender));
+  }
 }
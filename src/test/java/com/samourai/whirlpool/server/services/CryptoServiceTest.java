@@ -67,6 +67,28 @@ public class CryptoServiceTest extends AbstractIntegrationTest {
     Assertions.assertEquals(PK_PEM, pem);
   }
 
+  @Test
+  public void generateKeyPair_buffer() throws Exception {
+    // wait for background refill
+    long timeout = System.currentTimeMillis() + 60000;
+    while (cryptoService.getKeyPairBufferSize() == 0 && System.currentTimeMillis() < timeout) {
+      Thread.sleep(100);
+    }
+    int bufferSize = cryptoService.getKeyPairBufferSize();
+    Assertions.assertTrue(bufferSize > 0);
+
+    // TEST
+    AsymmetricCipherKeyPair keyPair1 = cryptoService.generateKeyPair();
+    AsymmetricCipherKeyPair keyPair2 = cryptoService.generateKeyPair();
+
+    // VERIFY
+    Assertions.assertNotEquals(
+        ((RSAKeyParameters) keyPair1.getPublic()).getModulus(),
+        ((RSAKeyParameters) keyPair2.getPublic()).getModulus());
+    Assertions.assertEquals(
+        2048, ((RSAKeyParameters) keyPair1.getPublic()).getModulus().bitLength());
+  }
+
   @Test
   public void computePublicKey() throws Exception {
     AsymmetricCipherKeyPair pk = testUtils.readPkPEM(PK_PEM);
@@ -0,0 +1,58 @@
+package com.samourai.whirlpool.server.services;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.samourai.whirlpool.server.beans.Mix;
+import com.samourai.whirlpool.server.beans.MixStats;
+import com.samourai.whirlpool.server.beans.MixStatsIndex;
+import com.samourai.whirlpool.server.beans.MixStatus;
+import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import java.lang.invoke.MethodHandles;
+import java.time.LocalDate;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class DbServiceTest extends AbstractIntegrationTest {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Test
+  public void mixStats_incremental() throws Exception {
+    Mix mix = __getCurrentMix();
+    String poolId = mix.getPool().getPoolId();
+    LocalDate today = LocalDate.now();
+    Assertions.assertEquals(0, dbService.getMixStats().getNbMixs());
+
+    // failed mix is not counted
+    mix.setMixStatusAndTime(MixStatus.FAIL);
+    dbService.saveMix(mix);
+    Assertions.assertEquals(0, dbService.getMixStats().getNbMixs());
+
+    // successful mix
+    Mix mixSuccess = new Mix("mixSuccess", mix.getPool(), cryptoService);
+    mixSuccess.setMixStatusAndTime(MixStatus.SUCCESS);
+    dbService.saveMix(mixSuccess);
+    long sumMustMix = mixSuccess.getNbInputsMustMix() * mix.getPool().getDenomination();
+    long sumAmountOut = mixSuccess.computeAmountOut();
+    assertMixStats(1, sumMustMix, sumAmountOut, dbService.getMixStats());
+    assertMixStats(1, sumMustMix, sumAmountOut, dbService.getMixStatsIndex().getByPool(poolId));
+    assertMixStats(1, sumMustMix, sumAmountOut, dbService.getMixStatsIndex().getByDay(today));
+    assertMixStats(0, 0, 0, dbService.getMixStatsIndex().getByPool("unknown"));
+
+    // same totals when aggregated from database
+    dbService.__reloadMixStatsIndex();
+    MixStatsIndex mixStatsIndex = dbService.getMixStatsIndex();
+    assertMixStats(1, sumMustMix, sumAmountOut, mixStatsIndex.getTotal());
+    assertMixStats(1, sumMustMix, sumAmountOut, mixStatsIndex.getByPool(poolId));
+    assertMixStats(1, sumMustMix, sumAmountOut, mixStatsIndex.getByDay(today));
+  }
+
+  private void assertMixStats(long nbMixs, long sumMustMix, long sumAmountOut, MixStats mixStats) {
+    Assertions.assertEquals(nbMixs, mixStats.getNbMixs());
+    Assertions.assertEquals(sumMustMix, mixStats.getSumMustMix());
+    Assertions.assertEquals(sumAmountOut, mixStats.getSumAmountOut());
+  }
+}
@@ -0,0 +1,117 @@
+package com.samourai.whirlpool.server.services;
+
+import com.samourai.whirlpool.server.beans.export.ActivityCsv;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class ExportHandlerTest {
+
+  private ExportHandler<ActivityCsv> computeExportHandler(
+      File directory, WhirlpoolServerConfig.ExportRotation rotation, long rotationMaxSize)
+      throws Exception {
+    return new ExportHandler<>(
+        computeConfig(directory, rotation, rotationMaxSize), ActivityCsv.HEADERS);
+  }
+
+  private WhirlpoolServerConfig.ExportItemConfig computeConfig(
+      File directory, WhirlpoolServerConfig.ExportRotation rotation, long rotationMaxSize) {
+    WhirlpoolServerConfig.ExportItemConfig config = new WhirlpoolServerConfig.ExportItemConfig();
+    config.setDirectory(directory.getAbsolutePath());
+    config.setFilename("activity.csv");
+    config.setRotation(rotation);
+    config.setRotationMaxSize(rotationMaxSize);
+    return config;
+  }
+
+  @Test
+  public void write() throws Exception {
+    File directory = Files.createTempDirectory("export").toFile();
+    ExportHandler<ActivityCsv> exportHandler =
+        computeExportHandler(directory, WhirlpoolServerConfig.ExportRotation.NONE, 0);
+
+    Map<String, String> details = new LinkedHashMap<>();
+    details.put("foo", "bar");
+    exportHandler.write(new ActivityCsv("REGISTER_INPUT", "0.01btc", "arg", details, true, null));
+    exportHandler.write(new ActivityCsv("CONFIRM_INPUT", null, null, null, null, null));
+    exportHandler.__flush();
+
+    List<String> lines = Files.readAllLines(exportHandler.__getCsvFile().toPath());
+    Assertions.assertEquals(3, lines.size());
+    Assertions.assertEquals("date,activity,poolId,arg,details,ip,clientDetails", lines.get(0));
+    Assertions.assertTrue(lines.get(1).endsWith(",REGISTER_INPUT,0.01btc,arg,{foo=bar},true,"));
+    Assertions.assertTrue(lines.get(2).endsWith(",CONFIRM_INPUT,,,,,"));
+    exportHandler.stop();
+  }
+
+  @Test
+  public void rotation_size() throws Exception {
+    File directory = Files.createTempDirectory("export").toFile();
+    ExportHandler<ActivityCsv> exportHandler =
+        computeExportHandler(directory, WhirlpoolServerConfig.ExportRotation.SIZE, 100);
+
+    // exceed rotationMaxSize
+    for (int i = 0; i < 5; i++) {
+      exportHandler.write(new ActivityCsv("ACTIVITY" + i, null, null, null, null, null));
+    }
+    exportHandler.__flush();
+
+    // closed segment is gzipped
+    File[] segments = directory.listFiles((dir, name) -> name.endsWith(".gz"));
+    Assertions.assertEquals(1, segments.length);
+    List<String> segmentLines;
+    try (BufferedReader reader =
+        new BufferedReader(
+            new InputStreamReader(
+                new GZIPInputStream(new FileInputStream(segments[0])), StandardCharsets.UTF_8))) {
+      segmentLines = reader.lines().collect(Collectors.toList());
+    }
+    Assertions.assertEquals(6, segmentLines.size());
+
+    // new file starts with headers
+    List<String> lines = Files.readAllLines(exportHandler.__getCsvFile().toPath());
+    Assertions.assertEquals(1, lines.size());
+    exportHandler.stop();
+  }
+
+  @Test
+  public void rotation_failure() throws Exception {
+    File directory = Files.createTempDirectory("export").toFile();
+    ExportHandler<ActivityCsv> exportHandler =
+        new ExportHandler<ActivityCsv>(
+            computeConfig(directory, WhirlpoolServerConfig.ExportRotation.SIZE, 100),
+            ActivityCsv.HEADERS) {
+          @Override
+          protected boolean renameFile(File file, File dest) {
+            throw new SecurityException("test");
+          }
+        };
+
+    // exceed rotationMaxSize => rotation fails
+    for (int i = 0; i < 5; i++) {
+      exportHandler.write(new ActivityCsv("ACTIVITY" + i, null, null, null, null, null));
+    }
+    exportHandler.__flush();
+
+    // keeps appending to current file
+    exportHandler.write(new ActivityCsv("ACTIVITY5", null, null, null, null, null));
+    exportHandler.__flush();
+
+    Assertions.assertEquals(0, directory.listFiles((dir, name) -> name.endsWith(".gz")).length);
+    List<String> lines = Files.readAllLines(exportHandler.__getCsvFile().toPath());
+    Assertions.assertEquals(7, lines.size());
+    Assertions.assertTrue(lines.get(6).contains(",ACTIVITY5,"));
+    exportHandler.stop();
+  }
+}
@@ -0,0 +1,85 @@
+package com.samourai.whirlpool.server.services;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.samourai.wallet.xmanagerClient.XManagerClient;
+import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import com.samourai.xmanager.protocol.XManagerService;
+import com.samourai.xmanager.protocol.rest.AddressIndexResponse;
+import java.lang.invoke.MethodHandles;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class FeeAddressServiceTest extends AbstractIntegrationTest {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  private XManagerClient mockXManagerClient;
+  private FeeAddressService feeAddressService;
+
+  @BeforeEach
+  @Override
+  public void setUp() throws Exception {
+    super.setUp();
+    mockXManagerClient = Mockito.mock(XManagerClient.class);
+    Mockito.when(mockXManagerClient.getAddressIndexOrDefault(Mockito.any()))
+        .thenReturn(new AddressIndexResponse("partnerAddress", 0)); // partners
+    feeAddressService = new FeeAddressService(mockXManagerClient, partnerService);
+  }
+
+  @Test
+  public void getFeeAddress_prefetched() throws Exception {
+    AddressIndexResponse first = new AddressIndexResponse("address1", 1);
+    AddressIndexResponse second = new AddressIndexResponse("address2", 2);
+    Mockito.when(mockXManagerClient.getAddressIndexOrDefault(XManagerService.XM000))
+        .thenReturn(first, second);
+
+    // prefetch
+    feeAddressService.prefetch();
+    verifyFetches(1);
+
+    // served from prefetched address, without calling xManager
+    Assertions.assertSame(first, feeAddressService.getFeeAddress(XManagerService.XM000));
+    verifyFetches(1);
+
+    // handed out => next one prefetched
+    feeAddressService.prefetch();
+    verifyFetches(2);
+    Assertions.assertSame(second, feeAddressService.getFeeAddress(XManagerService.XM000));
+  }
+
+  @Test
+  public void prefetch_idle() throws Exception {
+    Mockito.when(mockXManagerClient.getAddressIndexOrDefault(XManagerService.XM000))
+        .thenReturn(new AddressIndexResponse("address1", 1));
+
+    // idle ticks don't consume indexes
+    for (int i = 0; i < 5; i++) {
+      feeAddressService.prefetch();
+    }
+    verifyFetches(1);
+  }
+
+  @Test
+  public void getFeeAddress_notPrefetched() throws Exception {
+    AddressIndexResponse first = new AddressIndexResponse("address1", 1);
+    AddressIndexResponse second = new AddressIndexResponse("address2", 2);
+    Mockito.when(mockXManagerClient.getAddressIndexOrDefault(XManagerService.XM000))
+        .thenReturn(first, second);
+
+    // fetched on each request, never shared
+    Assertions.assertSame(first, feeAddressService.getFeeAddress(XManagerService.XM000));
+    Assertions.assertSame(second, feeAddressService.getFeeAddress(XManagerService.XM000));
+    verifyFetches(2);
+  }
+
+  private void verifyFetches(int times) {
+    Mockito.verify(mockXManagerClient, Mockito.times(times))
+        .getAddressIndexOrDefault(XManagerService.XM000);
+  }
+}
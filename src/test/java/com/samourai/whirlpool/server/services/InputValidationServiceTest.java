@@ -3,6 +3,7 @@ package com.samourai.whirlpool.server.services;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
 import com.samourai.javaserver.exceptions.NotifiableException;
+import com.samourai.whirlpool.server.beans.Pool;
 import com.samourai.whirlpool.server.beans.PoolFee;
 import com.samourai.whirlpool.server.beans.rpc.RpcTransaction;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
@@ -74,6 +75,30 @@ public class InputValidationServiceTest extends AbstractIntegrationTest {
     Assertions.assertTrue(doCheckInput(txid, 0, POOL_FEE)); // liquidity
   }
 
+  @Test
+  public void validateProvenance_verdictCache() throws Exception {
+    String txid = "b3557587f87bcbd37e847a0fff0ded013b23026f153d85f28cb5d407d39ef2f3";
+    RpcTransaction rpcTx = blockchainDataService.getRpcTransaction(txid).get();
+    Pool pool = poolService.getPool("0.01btc");
+
+    // rejected when unknown feePayload
+    IllegalInputException e =
+        Assertions.assertThrows(
+            IllegalInputException.class,
+            () -> inputValidationService.validateProvenance(rpcTx, false, pool, false));
+
+    // verdict from cache
+    IllegalInputException eCached =
+        Assertions.assertThrows(
+            IllegalInputException.class,
+            () -> inputValidationService.validateProvenance(rpcTx, false, pool, false));
+    Assertions.assertSame(e, eCached);
+
+    // SCODE configuration change => verdict invalidated
+    setScodeConfig("myscode", (short) 12345, 0, null);
+    inputValidationService.validateProvenance(rpcTx, false, pool, false);
+  }
+
   private boolean hasMixTxid(String utxoHash, long denomination) {
     return dbService.hasMixTxid(utxoHash, denomination);
   }
@@ -0,0 +1,56 @@
+package com.samourai.whirlpool.server.services;
+
+import com.samourai.whirlpool.server.tools.AbstractBenchmark;
+import io.micrometer.core.instrument.Metrics;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Setup;
+
+/** Recording cost of registry lookups on each event (legacy) vs pre-registered meters. */
+public class MetricServiceBenchmark extends AbstractBenchmark {
+  private static final String POOL_ID = "0.01btc";
+
+  private MetricService metricService;
+
+  @Setup
+  public void setup() {
+    Metrics.addRegistry(new SimpleMeterRegistry());
+    metricService = new MetricService();
+  }
+
+  @Benchmark
+  public void tx0_legacy() {
+    Metrics.counter(
+            "whirlpool_tx0_total",
+            "poolId",
+            POOL_ID,
+            "opReturnVersion",
+            Integer.toString(1),
+            "feePayloadVersion",
+            Integer.toString(1),
+            "scodeDiscountPercent",
+            Integer.toString(0),
+            "partnerId",
+            "SAMOURAI",
+            "soroban",
+            Boolean.toString(true))
+        .increment();
+    Metrics.summary("whirlpool_tx0_premix_count", "poolId", POOL_ID).record(5);
+    Metrics.summary("whirlpool_tx0_premix_volume", "poolId", POOL_ID).record(5000000);
+  }
+
+  @Benchmark
+  public void tx0() {
+    metricService.onTx0(POOL_ID, 5, 5000000, 1, 1, 0, "SAMOURAI", true);
+  }
+
+  @Benchmark
+  public void rpcTxCache_legacy() {
+    Metrics.counter("whirlpool_rpc_tx_cache_total", "result", "hit").increment();
+  }
+
+  @Benchmark
+  public void rpcTxCache() {
+    metricService.onRpcTxCache(true);
+  }
+}
@@ -0,0 +1,67 @@
+package com.samourai.whirlpool.server.services;
+
+import com.samourai.whirlpool.server.beans.Mix;
+import com.samourai.whirlpool.server.beans.MixStatus;
+import com.samourai.whirlpool.server.beans.Pool;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+
+public class MixLimitsServiceTest {
+  private static final int NB_SLOW_POOLS = 5;
+
+  @Test
+  public void onTimeout_slowPoolDoesntDelayOtherPools() throws Exception {
+    MixService mockMixService = Mockito.mock(MixService.class);
+    MixLimitsService mixLimitsService =
+        new MixLimitsService(Mockito.mock(WhirlpoolServerConfig.class));
+    mixLimitsService.setMixService(mockMixService);
+
+    CountDownLatch slowStarted = new CountDownLatch(NB_SLOW_POOLS);
+    CountDownLatch release = new CountDownLatch(1);
+    Mockito.doAnswer(
+            invocation -> {
+              Mix mix = invocation.getArgument(0);
+              if (mix.getPool().getPoolId().startsWith("slow")) {
+                // slow soroban invites
+                slowStarted.countDown();
+                release.await();
+              }
+              return null;
+            })
+        .when(mockMixService)
+        .onTimeoutConfirmInput(Mockito.any());
+
+    try {
+      // more slow pools than threads of a shared scheduler
+      for (int i = 0; i < NB_SLOW_POOLS; i++) {
+        Mix slowMix = mockMix("slow" + i);
+        mixLimitsService.manage(slowMix);
+        mixLimitsService.__simulateElapsedTime(slowMix, 999999);
+      }
+      Assertions.assertTrue(slowStarted.await(5, TimeUnit.SECONDS));
+
+      // other pool timeouts are not delayed
+      Mix mix = mockMix("fast");
+      mixLimitsService.manage(mix);
+      mixLimitsService.__simulateElapsedTime(mix, 999999);
+      Mockito.verify(mockMixService, Mockito.timeout(5000)).onTimeoutConfirmInput(mix);
+    } finally {
+      release.countDown();
+      mixLimitsService.__reset();
+    }
+  }
+
+  private Mix mockMix(String poolId) {
+    Pool pool = Mockito.mock(Pool.class);
+    Mockito.when(pool.getPoolId()).thenReturn(poolId);
+    Mix mix = Mockito.mock(Mix.class);
+    Mockito.when(mix.getMixId()).thenReturn("mix-" + poolId);
+    Mockito.when(mix.getPool()).thenReturn(pool);
+    Mockito.when(mix.getMixStatus()).thenReturn(MixStatus.CONFIRM_INPUT);
+    return mix;
+  }
+}
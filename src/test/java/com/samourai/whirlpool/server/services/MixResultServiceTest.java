@@ -0,0 +1,126 @@
+package com.samourai.whirlpool.server.services;
+
+import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
+
+import com.samourai.whirlpool.server.beans.Mix;
+import com.samourai.whirlpool.server.beans.MixStatus;
+import com.samourai.whirlpool.server.beans.export.MixCsv;
+import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import java.io.FileWriter;
+import java.lang.invoke.MethodHandles;
+import org.bitcoinj.core.Transaction;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest(webEnvironment = RANDOM_PORT)
+public class MixResultServiceTest extends AbstractIntegrationTest {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  @Autowired private MixResultService mixResultService;
+
+  @Test
+  public void onMixResult_success() throws Exception {
+    Mix mix = __getCurrentMix();
+    long denomination = mix.getPool().getDenomination();
+    String txid = "96cebec97115f59339a9053b6084aab5869adeefdbdbe974b74bfdbf3b8eaac3";
+    Transaction tx = blockchainDataService.getRpcTransaction(txid).get().getTx();
+    mix.setTx(tx);
+    Assertions.assertFalse(mixResultService.hasMixTxid(txid, denomination));
+
+    // enqueued => known before being persisted
+    mixResultService.onMixResult(mix, MixStatus.SUCCESS);
+    Assertions.assertTrue(mixResultService.hasMixTxid(txid, denomination));
+
+    // persisted
+    mixResultService.__flush();
+    Assertions.assertTrue(dbService.hasMix(mix.getMixId()));
+    Assertions.assertTrue(dbService.hasMixTxid(txid, denomination));
+
+    // journal truncated
+    Assertions.assertEquals(0, mixResultService.__getJournalFile().length());
+  }
+
+  @Test
+  public void onMixResult_dbFailure() throws Exception {
+    Mix mix = __getCurrentMix();
+    long denomination = mix.getPool().getDenomination();
+    String txid = "96cebec97115f59339a9053b6084aab5869adeefdbdbe974b74bfdbf3b8eaac3";
+    Transaction tx = blockchainDataService.getRpcTransaction(txid).get().getTx();
+    mix.setTx(tx);
+
+    // database down for 2 attempts
+    DbService spyDbService = Mockito.spy(dbService);
+    Mockito.doThrow(new RuntimeException("db down"))
+        .doThrow(new RuntimeException("db down"))
+        .doCallRealMethod()
+        .when(spyDbService)
+        .saveMix(Mockito.any());
+    mixResultService.__setDbService(spyDbService);
+    mixResultService.__setRetryDelayMinMs(10);
+    try {
+      mixResultService.onMixResult(mix, MixStatus.SUCCESS);
+
+      // retried until database recovers
+      mixResultService.__flush();
+      Mockito.verify(spyDbService, Mockito.times(3)).saveMix(Mockito.any());
+      Assertions.assertTrue(dbService.hasMix(mix.getMixId()));
+      Assertions.assertTrue(dbService.hasMixTxid(txid, denomination));
+      Assertions.assertTrue(mixResultService.hasMixTxid(txid, denomination));
+
+      // journal truncated
+      Assertions.assertEquals(0, mixResultService.__getJournalFile().length());
+    } finally {
+      mixResultService.__setDbService(dbService);
+    }
+  }
+
+  @Test
+  public void replayJournal() throws Exception {
+    String txidDone = "96cebec97115f59339a9053b6084aab5869adeefdbdbe974b74bfdbf3b8eaac3";
+    String txidPending = "7ea75da574ebabf8d17979615b059ab53aae3011926426204e730d164a0d0f16";
+    MixCsv mixDone = computeMixCsv(MixStatus.SUCCESS, txidDone);
+    MixCsv mixFail = computeMixCsv(MixStatus.FAIL, null);
+    MixCsv mixPending = computeMixCsv(MixStatus.SUCCESS, txidPending);
+    long denomination = mixPending.getDenomination();
+
+    // simulate crash before persisting
+    try (FileWriter writer = new FileWriter(mixResultService.__getJournalFile())) {
+      writer.write(mixResultService.__computeJournalPending(1, mixDone) + "\n");
+      writer.write(mixResultService.__computeJournalPending(2, mixFail) + "\n");
+      writer.write(mixResultService.__computeJournalPending(3, mixPending) + "\n");
+      writer.write("DONE 1\n");
+      writer.write("PENDING 4 {\"mixId\":"); // incomplete write
+    }
+    mixResultService.__replayJournal();
+
+    // only pending results are restored
+    Assertions.assertFalse(dbService.hasMix(mixDone.getMixId()));
+    Assertions.assertFalse(dbService.hasMixTxid(txidDone, denomination));
+    Assertions.assertTrue(dbService.hasMix(mixFail.getMixId()));
+    Assertions.assertTrue(dbService.hasMix(mixPending.getMixId()));
+    Assertions.assertTrue(dbService.hasMixTxid(txidPending, denomination));
+    Assertions.assertEquals(0, mixResultService.__getJournalFile().length());
+
+    // replaying results already saved (crash before DONE) is harmless
+    try (FileWriter writer = new FileWriter(mixResultService.__getJournalFile())) {
+      writer.write(mixResultService.__computeJournalPending(1, mixPending) + "\n");
+    }
+    mixResultService.__replayJournal();
+    Assertions.assertTrue(dbService.hasMix(mixPending.getMixId()));
+    Assertions.assertTrue(dbService.hasMixTxid(txidPending, denomination));
+  }
+
+  private MixCsv computeMixCsv(MixStatus mixStatus, String txid) throws Exception {
+    Mix mix = __nextMix(1, 0, 2, __getCurrentPoolId());
+    if (txid != null) {
+      mix.setTx(blockchainDataService.getRpcTransaction(txid).get().getTx());
+    }
+    mix.setMixStatusAndTime(mixStatus);
+    return new MixCsv(mix.computeMixTO());
+  }
+}
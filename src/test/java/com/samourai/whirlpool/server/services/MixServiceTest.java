@@ -12,6 +12,8 @@ import com.samourai.whirlpool.server.exceptions.QueueInputException;
 import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
 import com.samourai.whirlpool.server.utils.Utils;
 import java.lang.invoke.MethodHandles;
+import java.util.ArrayList;
+import java.util.List;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
@@ -942,6 +944,246 @@ public class MixServiceTest extends AbstractIntegrationTest {
     Assertions.assertEquals(dbService.findBlames(blameIdentifierMustMix3).size(), 1);
   }
 
+  @Test
+  public void onRegisterOutput_revalidateInputsOnce() throws Exception {
+    MixService spyMixService = Mockito.spy(mixService);
+    Mockito.doNothing().when(spyMixService).changeMixStatus(Mockito.any(), Mockito.any());
+    long denomination = 200000000;
+    long feeValue = 10000000;
+    long minerFeeMin = 100;
+    long minerFeeCap = 9500;
+    long minerFeeMax = 10000;
+    long minRelaySatPerB = 1;
+    int mustMixMin = 1;
+    int liquidityMin = 0;
+    int anonymitySet = 2;
+    Mix mix =
+        __nextMix(
+            denomination,
+            feeValue,
+            minerFeeMin,
+            minerFeeCap,
+            minerFeeMax,
+            minRelaySatPerB,
+            mustMixMin,
+            liquidityMin,
+            anonymitySet,
+            0);
+    long mustMixValue = 200000400;
+
+    // 2 mustMix confirmed
+    for (int i = 1; i <= 2; i++) {
+      mix.registerInput(
+          new RegisteredInput(
+              mix.getPool().getPoolId(),
+              "mustMix" + i,
+              false,
+              generateOutPoint(mustMixValue),
+              false,
+              "userHash" + i,
+              null),
+          ClientUtils.generateBordereau());
+    }
+
+    // first output => no RPC revalidation
+    mix.registerOutput(
+        testUtils.generateSegwitAddress().getBech32AsString(), ClientUtils.generateBordereau());
+    spyMixService.onRegisterOutput(mix);
+    Mockito.verify(spyMixService, Mockito.never()).revalidateInputsForSpent(mix);
+    Mockito.verify(spyMixService, Mockito.never()).changeMixStatus(Mockito.any(), Mockito.any());
+
+    // last output => revalidate once and go SIGNING
+    mix.registerOutput(
+        testUtils.generateSegwitAddress().getBech32AsString(), ClientUtils.generateBordereau());
+    spyMixService.onRegisterOutput(mix);
+    Mockito.verify(spyMixService, Mockito.times(1)).revalidateInputsForSpent(mix);
+    Mockito.verify(spyMixService).changeMixStatus(mix.getMixId(), MixStatus.SIGNING);
+  }
+
+  @Test
+  public void onTimeoutRegisterOutput_spentCheckFailed() throws Exception {
+    MixService spyMixService = Mockito.spy(mixService);
+    Mockito.doNothing().when(spyMixService).changeMixStatus(Mockito.any(), Mockito.any());
+    long denomination = 200000000;
+    long feeValue = 10000000;
+    long minerFeeMin = 100;
+    long minerFeeCap = 9500;
+    long minerFeeMax = 10000;
+    long minRelaySatPerB = 1;
+    int mustMixMin = 1;
+    int liquidityMin = 0;
+    int anonymitySet = 2;
+    Mix mix =
+        __nextMix(
+            denomination,
+            feeValue,
+            minerFeeMin,
+            minerFeeCap,
+            minerFeeMax,
+            minRelaySatPerB,
+            mustMixMin,
+            liquidityMin,
+            anonymitySet,
+            0);
+    long mustMixValue = 200000400;
+
+    // 2 mustMix confirmed, outputs registered
+    for (int i = 1; i <= 2; i++) {
+      mix.registerInput(
+          new RegisteredInput(
+              mix.getPool().getPoolId(),
+              "mustMix" + i,
+              false,
+              generateOutPoint(mustMixValue),
+              false,
+              "userHash" + i,
+              null),
+          ClientUtils.generateBordereau());
+    }
+    mix.setMixStatusAndTime(MixStatus.REGISTER_OUTPUT);
+
+    // last output while bitcoind unreachable => wait
+    rpcClientService.mockUnreachable(true);
+    for (int i = 1; i <= 2; i++) {
+      mix.registerOutput(
+          testUtils.generateSegwitAddress().getBech32AsString(), ClientUtils.generateBordereau());
+    }
+    spyMixService.onRegisterOutput(mix);
+    Mockito.verify(spyMixService, Mockito.never()).changeMixStatus(Mockito.any(), Mockito.any());
+
+    // bitcoind back => checked again on timeout and go SIGNING
+    rpcClientService.mockUnreachable(false);
+    spyMixService.onTimeoutRegisterOutput(mix);
+    Mockito.verify(spyMixService).changeMixStatus(mix.getMixId(), MixStatus.SIGNING);
+    Mockito.verify(spyMixService, Mockito.never())
+        .changeMixStatus(mix.getMixId(), MixStatus.REVEAL_OUTPUT);
+  }
+
+  @Test
+  public void onSign_spentDuringSigning() throws Exception {
+    MixService spyMixService = Mockito.spy(mixService);
+    long denomination = 200000000;
+    long feeValue = 10000000;
+    long minerFeeMin = 100;
+    long minerFeeCap = 9500;
+    long minerFeeMax = 10000;
+    long minRelaySatPerB = 1;
+    int mustMixMin = 1;
+    int liquidityMin = 0;
+    int anonymitySet = 2;
+    Mix mix =
+        __nextMix(
+            denomination,
+            feeValue,
+            minerFeeMin,
+            minerFeeCap,
+            minerFeeMax,
+            minRelaySatPerB,
+            mustMixMin,
+            liquidityMin,
+            anonymitySet,
+            0);
+    long mustMixValue = 200000400;
+
+    // 2 mustMix confirmed, outputs registered
+    List<RegisteredInput> inputs = new ArrayList<>();
+    for (int i = 1; i <= 2; i++) {
+      RegisteredInput input =
+          new RegisteredInput(
+              mix.getPool().getPoolId(),
+              "mustMix" + i,
+              false,
+              generateOutPoint(mustMixValue),
+              false,
+              "userHash" + i,
+              null);
+      mix.registerInput(input, ClientUtils.generateBordereau());
+      mix.registerOutput(
+          testUtils.generateSegwitAddress().getBech32AsString(), ClientUtils.generateBordereau());
+      inputs.add(input);
+    }
+    mix.setMixStatusAndTime(MixStatus.SIGNING);
+
+    // first signature => no RPC revalidation
+    mix.setSigned(inputs.get(0));
+    spyMixService.onSign(mix);
+    Mockito.verify(spyMixService, Mockito.never()).revalidateInputsForSpent(mix);
+
+    // mustMix2 double-spent during SIGNING
+    TxOutPoint out2 = inputs.get(1).getOutPoint();
+    rpcClientService.mockSpentOutput(out2.getHash(), out2.getIndex());
+
+    // last signature => revalidate before broadcast
+    mix.setSigned(inputs.get(1));
+    spyMixService.onSign(mix);
+    Mockito.verify(spyMixService, Mockito.times(1)).revalidateInputsForSpent(mix);
+
+    // mix failed with SPENT blame
+    Assertions.assertEquals(MixStatus.FAIL, mix.getMixStatus());
+    Assertions.assertEquals(FailReason.SPENT, mix.getFailReason());
+    String blameIdentifier = Utils.computeBlameIdentitifer(inputs.get(1));
+    Assertions.assertEquals(1, dbService.findBlames(blameIdentifier).size());
+  }
+
+  @Test
+  public void validateOnConfirmInput_sameUserHashOrTxHash() throws Exception {
+    Mix mix = __nextMix(2, 0, 5, __getCurrentPoolId());
+    long mustMixValue = mix.getPool().computePremixBalanceMin(false);
+
+    RegisteredInput mustMix1 =
+        new RegisteredInput(
+            mix.getPool().getPoolId(),
+            "mustMix1",
+            false,
+            generateOutPoint(mustMixValue),
+            false,
+            "userHash1",
+            null);
+    mix.registerInput(mustMix1, ClientUtils.generateBordereau());
+    Assertions.assertEquals(1, mix.getNbInputsByUserHash("userHash1"));
+    Assertions.assertEquals(1, mix.getNbInputsByTxHash(mustMix1.getOutPoint().getHash()));
+
+    // reject same userHash
+    RegisteredInput sameUserHash =
+        new RegisteredInput(
+            mix.getPool().getPoolId(),
+            "mustMix2",
+            false,
+            generateOutPoint(mustMixValue),
+            false,
+            "userHash1",
+            null);
+    Assertions.assertThrows(
+        QueueInputException.class, () -> mixService.validateOnConfirmInput(mix, sameUserHash));
+
+    // reject same tx hash
+    TxOutPoint outPoint1 = mustMix1.getOutPoint();
+    RegisteredInput sameTxHash =
+        new RegisteredInput(
+            mix.getPool().getPoolId(),
+            "mustMix3",
+            false,
+            new TxOutPoint(
+                outPoint1.getHash(),
+                outPoint1.getIndex() + 1,
+                mustMixValue,
+                99,
+                null,
+                testUtils.generateSegwitAddress().getBech32AsString()),
+            false,
+            "userHash3",
+            null);
+    Assertions.assertThrows(
+        QueueInputException.class, () -> mixService.validateOnConfirmInput(mix, sameTxHash));
+
+    // accept both after unregistering first input
+    mix.unregisterInput(mustMix1);
+    Assertions.assertEquals(0, mix.getNbInputsByUserHash("userHash1"));
+    Assertions.assertEquals(0, mix.getNbInputsByTxHash(outPoint1.getHash()));
+    mixService.validateOnConfirmInput(mix, sameUserHash);
+    mixService.validateOnConfirmInput(mix, sameTxHash);
+  }
+
   private void checkAccepts(boolean mustMix, boolean liquidity, Mix mix) {
     // try mustMix
     try {
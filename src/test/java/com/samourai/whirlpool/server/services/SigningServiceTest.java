@@ -12,9 +12,16 @@ import com.samourai.whirlpool.server.beans.MixStatus;
 import com.samourai.whirlpool.server.beans.Pool;
 import com.samourai.whirlpool.server.beans.RegisteredInput;
 import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
 import com.samourai.whirlpool.server.exceptions.IllegalInputException;
 import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import org.bitcoinj.core.ECKey;
 import org.bitcoinj.core.Transaction;
 import org.bouncycastle.crypto.params.RSABlindingParameters;
@@ -182,6 +189,139 @@ public class SigningServiceTest extends AbstractIntegrationTest {
     Assertions.assertTrue(false); // IllegalInputException expected
   }
 
+  @Test
+  public void signing_concurrentPools() throws Exception {
+    // 2 pools with 1 user each
+    Pool poolA = configureSingleUserPool("0.01btc");
+    Pool poolB = configureSingleUserPool("0.05btc");
+    mixService.__reset();
+    Mix mixA = poolA.getCurrentMix();
+    Mix mixB = poolB.getCurrentMix();
+
+    // bring both mixs to SIGNING
+    ECKey ecKeyA = new ECKey();
+    ECKey ecKeyB = new ECKey();
+    TxOutPoint txOutPointA =
+        createAndMockTxOutPoint(
+            new SegwitAddress(ecKeyA.getPubKey(), params),
+            poolA.computePremixBalanceMin(false),
+            10);
+    TxOutPoint txOutPointB =
+        createAndMockTxOutPoint(
+            new SegwitAddress(ecKeyB.getPubKey(), params),
+            poolB.computePremixBalanceMin(false),
+            10);
+    String[] witness64A =
+        doSigning(
+            mixA,
+            new PremixHandler(txOutPointA.toUtxoWithBalance(), ecKeyA, "userPreHash"),
+            false,
+            txOutPointA,
+            "userA");
+    String[] witness64B =
+        doSigning(
+            mixB,
+            new PremixHandler(txOutPointB.toUtxoWithBalance(), ecKeyB, "userPreHash"),
+            false,
+            txOutPointB,
+            "userB");
+    Assertions.assertEquals(MixStatus.SIGNING, mixA.getMixStatus());
+    Assertions.assertEquals(MixStatus.SIGNING, mixB.getMixStatus());
+    RegisteredInput inputA = mixA.getInputs().findByUsername("userA").get();
+    RegisteredInput inputB = mixB.getInputs().findByUsername("userB").get();
+
+    ExecutorService executor = Executors.newFixedThreadPool(2);
+    try {
+      // simulate a slow step holding poolA
+      poolA.getMixLock().lock();
+      try {
+        Future<?> signingA = executor.submit(() -> signing(witness64A, mixA, inputA));
+        Future<?> signingB = executor.submit(() -> signing(witness64B, mixB, inputB));
+
+        // poolB is not blocked by poolA
+        signingB.get(10, TimeUnit.SECONDS);
+        Assertions.assertEquals(MixStatus.SUCCESS, mixB.getMixStatus());
+
+        // poolA waits for its own lock
+        try {
+          signingA.get(500, TimeUnit.MILLISECONDS);
+          Assertions.assertTrue(false);
+        } catch (TimeoutException e) {
+          // expected
+        }
+        Assertions.assertEquals(MixStatus.SIGNING, mixA.getMixStatus());
+      } finally {
+        poolA.getMixLock().unlock();
+      }
+
+      // poolA resumes
+      executor.shutdown();
+      Assertions.assertTrue(executor.awaitTermination(10, TimeUnit.SECONDS));
+      Assertions.assertEquals(MixStatus.SUCCESS, mixA.getMixStatus());
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  public void signing_invalidSignatureRejectedWithoutLock() throws Exception {
+    // mix config
+    Mix mix = __nextMix(1, 0, 1, __getCurrentPoolId()); // 1 user
+
+    // prepare input
+    ECKey ecKey = new ECKey();
+    long inputBalance = mix.getPool().computePremixBalanceMin(false);
+    TxOutPoint txOutPoint =
+        createAndMockTxOutPoint(new SegwitAddress(ecKey.getPubKey(), params), inputBalance, 10);
+
+    // invalid signature (invalid key)
+    PremixHandler premixHandler =
+        new PremixHandler(txOutPoint.toUtxoWithBalance(), new ECKey(), "userPreHash");
+    String[] witness64 = doSigning(mix, premixHandler, false, txOutPoint, "user1");
+    RegisteredInput input = mix.getInputs().findByUsername("user1").get();
+
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      // simulate a slow step holding pool
+      mix.getPool().getMixLock().lock();
+      try {
+        // signature is verified before waiting for pool lock
+        Future<?> signing = executor.submit(() -> signing(witness64, mix, input));
+        try {
+          signing.get(10, TimeUnit.SECONDS);
+          Assertions.assertTrue(false);
+        } catch (ExecutionException e) {
+          Assertions.assertTrue(e.getCause() instanceof IllegalInputException);
+          Assertions.assertEquals("Invalid signature", e.getCause().getMessage());
+        }
+        Assertions.assertFalse(mix.isSigned(input));
+      } finally {
+        mix.getPool().getMixLock().unlock();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  private Void signing(String[] witness64, Mix mix, RegisteredInput confirmedInput)
+      throws Exception {
+    signingService.signing(witness64, mix, confirmedInput);
+    return null;
+  }
+
+  private Pool configureSingleUserPool(String poolId) throws Exception {
+    Pool copyPool = poolService.getPool(poolId);
+    WhirlpoolServerConfig.PoolConfig poolConfig = new WhirlpoolServerConfig.PoolConfig();
+    poolConfig.setId(copyPool.getPoolId());
+    poolConfig.setDenomination(copyPool.getDenomination());
+    poolConfig.setFeeValue(copyPool.getPoolFee().getFeeValue());
+    poolConfig.setFeeAccept(copyPool.getPoolFee().getFeeAccept());
+    poolConfig.setMustMixMin(1);
+    poolConfig.setLiquidityMin(0);
+    poolConfig.setAnonymitySet(1);
+    return poolService.__reset(poolConfig, copyPool.getMinerFee());
+  }
+
   private String[] doSigning(
       Mix mix,
       PremixHandler premixHandler,
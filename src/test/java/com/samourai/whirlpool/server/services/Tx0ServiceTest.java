@@ -3,17 +3,23 @@ package com.samourai.whirlpool.server.services;
 import static org.springframework.boot.test.context.SpringBootTest.WebEnvironment.RANDOM_PORT;
 
 import com.samourai.wallet.api.backend.beans.BackendPushTxException;
+import com.samourai.wallet.xmanagerClient.XManagerClient;
 import com.samourai.whirlpool.protocol.WhirlpoolProtocol;
+import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0DataRequest;
+import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0DataResponse;
 import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0PushRequest;
 import com.samourai.whirlpool.protocol.soroban.payload.tx0.Tx0PushResponseSuccess;
 import com.samourai.whirlpool.server.beans.Pool;
 import com.samourai.whirlpool.server.beans.PoolFee;
 import com.samourai.whirlpool.server.integration.AbstractIntegrationTest;
+import com.samourai.xmanager.protocol.rest.AddressIndexResponse;
 import java.lang.invoke.MethodHandles;
+import java.util.concurrent.atomic.AtomicInteger;
 import org.bitcoinj.core.Transaction;
 import org.junit.jupiter.api.Assertions;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.mockito.Mockito;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -473,6 +479,49 @@ public class Tx0ServiceTest extends AbstractIntegrationTest {
     }
   }*/
 
+  @Test
+  public void tx0Data_feeAddressNotShared() throws Exception {
+    XManagerClient mockXManagerClient = Mockito.mock(XManagerClient.class);
+    AtomicInteger feeIndex = new AtomicInteger();
+    Mockito.when(mockXManagerClient.getAddressIndexOrDefault(Mockito.any()))
+        .thenAnswer(
+            invocation ->
+                new AddressIndexResponse(
+                    testUtils.generateSegwitAddress().getBech32AsString(),
+                    feeIndex.incrementAndGet()));
+    FeeAddressService feeAddressService = new FeeAddressService(mockXManagerClient, partnerService);
+    Tx0Service tx0Service =
+        new Tx0Service(
+            poolService,
+            partnerService,
+            tx0ValidationService,
+            scodeService,
+            feePayloadService,
+            exportService,
+            serverConfig,
+            serverContext,
+            feeAddressService,
+            backendService,
+            metricService);
+    Tx0DataRequest request = new Tx0DataRequest(null, null);
+
+    // each tx0Data gets its own feeAddress
+    Tx0DataResponse.Tx0Data tx0Data1 = findTx0Data(tx0Service.tx0Data(request, false, null, null));
+    Tx0DataResponse.Tx0Data tx0Data2 = findTx0Data(tx0Service.tx0Data(request, false, null, null));
+    Assertions.assertNotNull(tx0Data1.feeAddress);
+    Assertions.assertNotNull(tx0Data2.feeAddress);
+    Assertions.assertNotEquals(tx0Data1.feeAddress, tx0Data2.feeAddress);
+  }
+
+  private Tx0DataResponse.Tx0Data findTx0Data(Tx0DataResponse tx0DataResponse) {
+    for (Tx0DataResponse.Tx0Data tx0Data : tx0DataResponse.tx0Datas) {
+      if (tx0Data.poolId.equals(pool.getPoolId())) {
+        return tx0Data;
+      }
+    }
+    throw new IllegalStateException("Tx0Data not found: " + pool.getPoolId());
+  }
+
   protected Tx0PushResponseSuccess pushTx0(byte[] tx, long txTime, String poolId) throws Exception {
     String tx64 = WhirlpoolProtocol.encodeBytes(tx);
     Tx0PushRequest request = new Tx0PushRequest(tx64, poolId);
@@ -86,7 +86,7 @@ public class Tx0ValidationServiceV0Test extends AbstractIntegrationTest {
             exportService,
             serverConfig,
             serverContext,
-            xManagerClient,
+            new FeeAddressService(xManagerClient, partnerService),
             backendService,
             metricService);
   }
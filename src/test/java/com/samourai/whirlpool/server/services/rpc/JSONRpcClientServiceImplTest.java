@@ -0,0 +1,89 @@
+package com.samourai.whirlpool.server.services.rpc;
+
+import com.samourai.whirlpool.server.beans.rpc.TxOutPoint;
+import com.samourai.whirlpool.server.config.WhirlpoolServerConfig;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+public class JSONRpcClientServiceImplTest {
+  private MockBitcoindServer bitcoind;
+  private JSONRpcClientServiceImpl rpcClientService;
+
+  @BeforeEach
+  public void setUp() throws Exception {
+    bitcoind = new MockBitcoindServer();
+
+    WhirlpoolServerConfig.RpcClientConfig rpcClientConfig =
+        new WhirlpoolServerConfig.RpcClientConfig();
+    rpcClientConfig.setProtocol("http");
+    rpcClientConfig.setHost("127.0.0.1");
+    rpcClientConfig.setPort(bitcoind.getPort());
+    rpcClientConfig.setUser(MockBitcoindServer.USER);
+    rpcClientConfig.setPassword(MockBitcoindServer.PASSWORD);
+    WhirlpoolServerConfig serverConfig = new WhirlpoolServerConfig();
+    serverConfig.setRpcClient(rpcClientConfig);
+    rpcClientService = new JSONRpcClientServiceImpl(serverConfig);
+  }
+
+  @AfterEach
+  public void tearDown() {
+    bitcoind.stop();
+  }
+
+  @Test
+  public void getRawTransactions() throws Exception {
+    bitcoind.mockTx("tx1", "hex1");
+    bitcoind.mockTx("tx2", "hex2");
+
+    Map<String, RpcRawTransactionResponse> rawTxs =
+        rpcClientService.getRawTransactions(Arrays.asList("tx1", "unknown", "tx2"));
+    Assertions.assertEquals(1, bitcoind.getNbRequests()); // single batch
+    Assertions.assertEquals(2, rawTxs.size());
+    Assertions.assertEquals("hex1", rawTxs.get("tx1").getHex());
+    Assertions.assertEquals("hex2", rawTxs.get("tx2").getHex());
+    Assertions.assertEquals(10, rawTxs.get("tx2").getConfirmations());
+    Assertions.assertEquals(1234000, rawTxs.get("tx2").getTxTime());
+
+    Assertions.assertEquals("hex1", rpcClientService.getRawTransaction("tx1").get().getHex());
+    Assertions.assertFalse(rpcClientService.getRawTransaction("unknown").isPresent());
+  }
+
+  @Test
+  public void isTxOutUnspent() throws Exception {
+    List<TxOutPoint> outPoints = new ArrayList<>();
+    for (int i = 0; i < 1200; i++) {
+      outPoints.add(new TxOutPoint("tx" + i, i % 3, 0, 0, null, null));
+      if (i % 2 == 0) {
+        bitcoind.mockUnspent("tx" + i, i % 3);
+      }
+    }
+
+    List<Boolean> unspents = rpcClientService.isTxOutUnspent(outPoints);
+    Assertions.assertEquals(3, bitcoind.getNbRequests()); // batches of 500
+    Assertions.assertEquals(outPoints.size(), unspents.size());
+    for (int i = 0; i < outPoints.size(); i++) {
+      Assertions.assertEquals(i % 2 == 0, unspents.get(i));
+    }
+
+    Assertions.assertTrue(rpcClientService.isTxOutUnspent("tx0", 0));
+    Assertions.assertFalse(rpcClientService.isTxOutUnspent("tx1", 1));
+  }
+
+  @Test
+  public void isTxOutUnspent_unreachable() throws Exception {
+    bitcoind.mockUnspent("tx0", 0);
+    bitcoind.stop();
+
+    // batch must not report inputs as spent when bitcoind is unreachable
+    List<TxOutPoint> outPoints = Arrays.asList(new TxOutPoint("tx0", 0, 0, 0, null, null));
+    Assertions.assertThrows(Exception.class, () -> rpcClientService.isTxOutUnspent(outPoints));
+
+    Assertions.assertFalse(rpcClientService.isTxOutUnspent("tx0", 0));
+  }
+}
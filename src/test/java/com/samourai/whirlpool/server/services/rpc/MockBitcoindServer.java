@@ -0,0 +1,119 @@
+package com.samourai.whirlpool.server.services.rpc;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import java.io.OutputStream;
+import java.lang.invoke.MethodHandles;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+/** Local bitcoind stub answering JSON-RPC batches for getrawtransaction and gettxout. */
+public class MockBitcoindServer {
+  private static final Logger log = LoggerFactory.getLogger(MethodHandles.lookup().lookupClass());
+
+  public static final String USER = "user";
+  public static final String PASSWORD = "password";
+
+  private HttpServer server;
+  private ObjectMapper objectMapper = new ObjectMapper();
+  private Map<String, String> txHexs = new ConcurrentHashMap<>();
+  private Set<String> unspentOutPoints = ConcurrentHashMap.newKeySet();
+  private AtomicInteger nbRequests = new AtomicInteger(0);
+
+  public MockBitcoindServer() throws Exception {
+    server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+    server.createContext("/", exchange -> handle(exchange));
+    server.start();
+  }
+
+  public void mockTx(String txid, String hex) {
+    txHexs.put(txid, hex);
+  }
+
+  public void mockUnspent(String txid, long index) {
+    unspentOutPoints.add(txid + ":" + index);
+  }
+
+  public int getPort() {
+    return server.getAddress().getPort();
+  }
+
+  public int getNbRequests() {
+    return nbRequests.get();
+  }
+
+  public void stop() {
+    server.stop(0);
+  }
+
+  private void handle(HttpExchange exchange) {
+    try {
+      nbRequests.incrementAndGet();
+      String expectedAuth =
+          "Basic "
+              + Base64.getEncoder()
+                  .encodeToString((USER + ":" + PASSWORD).getBytes(StandardCharsets.UTF_8));
+      if (!expectedAuth.equals(exchange.getRequestHeaders().getFirst("Authorization"))) {
+        exchange.sendResponseHeaders(401, -1);
+        return;
+      }
+
+      JsonNode request = objectMapper.readTree(exchange.getRequestBody());
+      ArrayNode response = objectMapper.createArrayNode();
+      for (JsonNode call : request) {
+        ObjectNode item = response.addObject();
+        item.set("id", call.get("id"));
+        JsonNode params = call.get("params");
+        switch (call.get("method").asText()) {
+          case "getrawtransaction":
+            String hex = txHexs.get(params.get(0).asText());
+            if (hex != null) {
+              ObjectNode rawTx = item.putObject("result");
+              rawTx.put("hex", hex);
+              rawTx.put("confirmations", 10);
+              rawTx.put("time", 1234);
+            } else {
+              item.putObject("error").put("code", -5).put("message", "No such transaction");
+            }
+            break;
+          case "gettxout":
+            if (unspentOutPoints.contains(params.get(0).asText() + ":" + params.get(1).asLong())) {
+              item.putObject("result").put("value", 0.01);
+            } else {
+              item.putNull("result");
+            }
+            break;
+          default:
+            item.putObject("error").put("code", -32601).put("message", "Method not found");
+        }
+      }
+      // reverse order: clients must match responses by id
+      ArrayNode reversed = objectMapper.createArrayNode();
+      for (int i = response.size() - 1; i >= 0; i--) {
+        reversed.add(response.get(i));
+      }
+
+      byte[] body = objectMapper.writeValueAsBytes(reversed);
+      exchange.getResponseHeaders().set("Content-Type", "application/json");
+      exchange.sendResponseHeaders(200, body.length);
+      try (OutputStream os = exchange.getResponseBody()) {
+        os.write(body);
+      }
+    } catch (Exception e) {
+      log.error("MockBitcoindServer error", e);
+    } finally {
+      exchange.close();
+    }
+  }
+}
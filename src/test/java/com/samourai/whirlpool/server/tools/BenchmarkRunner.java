@@ -0,0 +1,17 @@
+package com.samourai.whirlpool.server.tools;
+
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Runs JMH benchmarks from test sources: mvn -Pbenchmark test-compile exec:exec
+ * [-Dbenchmark=MixSigningContextBenchmark]
+ */
+public class BenchmarkRunner {
+  private static final String INCLUDE_ALL = ".*Benchmark";
+
+  public static void main(String[] args) throws Exception {
+    String include = args.length > 0 ? args[0] : INCLUDE_ALL;
+    new Runner(new OptionsBuilder().include(include).build()).run();
+  }
+}
@@ -0,0 +1,101 @@
+package com.samourai.whirlpool.server.utils;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Assertions;
+import org.junit.jupiter.api.Test;
+
+public class BlockingRejectedExecutionHandlerTest {
+  private ThreadPoolExecutor executor;
+  private CountDownLatch release;
+  private AtomicInteger nbRejected;
+  private AtomicInteger nbRun;
+
+  private void setup(long offerTimeoutMs) throws Exception {
+    // 1 thread + queue of 1
+    executor =
+        new ThreadPoolExecutor(
+            1,
+            1,
+            0,
+            TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(1),
+            r -> new Thread(r, "worker"));
+    nbRejected = new AtomicInteger();
+    nbRun = new AtomicInteger();
+    executor.setRejectedExecutionHandler(
+        new BlockingRejectedExecutionHandler(
+            "test", offerTimeoutMs, () -> nbRejected.incrementAndGet()));
+
+    // saturate: worker blocked + queue full
+    release = new CountDownLatch(1);
+    executor.execute(
+        () -> {
+          try {
+            release.await();
+          } catch (InterruptedException e) {
+          }
+          nbRun.incrementAndGet();
+        });
+    executor.execute(() -> nbRun.incrementAndGet());
+  }
+
+  @AfterEach
+  public void tearDown() {
+    release.countDown();
+    executor.shutdownNow();
+  }
+
+  @Test
+  public void saturated_waitsForQueue() throws Exception {
+    setup(10000);
+
+    // rejected task waits for room in the queue
+    Thread submitter = new Thread(() -> executor.execute(() -> nbRun.incrementAndGet()));
+    submitter.start();
+    Thread.sleep(200);
+    Assertions.assertTrue(submitter.isAlive());
+    Assertions.assertEquals(1, nbRejected.get());
+
+    // worker released => task queued and run by worker
+    release.countDown();
+    submitter.join(5000);
+    Assertions.assertFalse(submitter.isAlive());
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(3, nbRun.get());
+  }
+
+  @Test
+  public void saturated_runsOnCallerAfterTimeout() throws Exception {
+    setup(100);
+
+    // still saturated after timeout => run on caller thread, never dropped
+    AtomicReference<Thread> ranOn = new AtomicReference<>();
+    executor.execute(() -> ranOn.set(Thread.currentThread()));
+    Assertions.assertSame(Thread.currentThread(), ranOn.get());
+    Assertions.assertEquals(1, nbRejected.get());
+  }
+
+  @Test
+  public void saturated_dropsBestEffort() throws Exception {
+    setup(10000);
+
+    // best-effort task is dropped without waiting
+    AtomicInteger nbBestEffortRun = new AtomicInteger();
+    BlockingRejectedExecutionHandler.BestEffort task = () -> nbBestEffortRun.incrementAndGet();
+    executor.execute(task);
+    Assertions.assertEquals(1, nbRejected.get());
+
+    release.countDown();
+    executor.shutdown();
+    Assertions.assertTrue(executor.awaitTermination(5, TimeUnit.SECONDS));
+    Assertions.assertEquals(2, nbRun.get());
+    Assertions.assertEquals(0, nbBestEffortRun.get());
+  }
+}